@@ -0,0 +1,183 @@
+package project.backend.client;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import project.backend.exception.GitOperationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local clones of the generated repositories, one per GitLab project, kept across requests.
+ * A mirror is cloned on first use and afterwards only refreshed with a fetch. Every use holds the lock of its mirror,
+ * so concurrent requests for the same project queue up while different projects proceed in parallel.
+ * Once the mirrors take more disk space than the budget, the least recently used ones are deleted.
+ */
+@Slf4j
+@Component
+public class GitMirrorCache {
+
+    /**
+     * Work done on the working tree of a mirror while its lock is held.
+     */
+    @FunctionalInterface
+    public interface MirrorAction<T> {
+
+        T apply(Path workTree) throws IOException;
+    }
+
+    private final GitOperations gitOperations;
+    private final Path directory;
+    private final long maxBytes;
+    private final Map<Long, Mirror> mirrors = new ConcurrentHashMap<>();
+
+    public GitMirrorCache(GitOperations gitOperations,
+                          @Value("${gitlab.git.mirror-cache.directory}") String directory,
+                          @Value("${gitlab.git.mirror-cache.max-size}") DataSize maxSize) {
+        this.gitOperations = gitOperations;
+        this.directory = Path.of(directory);
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * Picks up the mirrors left by a previous run, so they are reused and count towards the budget.
+     */
+    @PostConstruct
+    public void loadMirrors() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!name.matches("\\d+") || !Files.isDirectory(entry.resolve(".git"))) {
+                    continue;
+                }
+                Mirror mirror = new Mirror(entry);
+                mirror.lastAccess = Files.getLastModifiedTime(entry).toMillis();
+                mirror.sizeBytes = sizeOf(entry);
+                mirrors.put(Long.parseLong(name), mirror);
+            }
+        }
+        log.info("Loaded {} git mirrors from {}", mirrors.size(), directory);
+    }
+
+    /**
+     * Brings the mirror of the project up to date with the remote and runs the action on its working tree.
+     * Changes the action leaves behind are discarded before the next use.
+     *
+     * @param gitlabProjectId the id of the project in GitLab, the key of the mirror
+     * @param remoteUrl the remote to clone from when there is no usable mirror yet
+     */
+    public <T> T withMirror(long gitlabProjectId, String remoteUrl, MirrorAction<T> action) throws IOException {
+        Mirror mirror = lock(gitlabProjectId);
+        try {
+            refresh(mirror, remoteUrl);
+            return action.apply(mirror.path);
+        } finally {
+            mirror.lastAccess = System.currentTimeMillis();
+            mirror.sizeBytes = sizeOf(mirror.path);
+            mirror.lock.unlock();
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private Mirror lock(long gitlabProjectId) {
+        while (true) {
+            Mirror mirror = mirrors.computeIfAbsent(gitlabProjectId, id -> new Mirror(directory.resolve(Long.toString(id))));
+            mirror.lock.lock();
+            // The mirror may have been evicted while waiting for the lock, its replacement has to be used instead
+            if (mirrors.get(gitlabProjectId) == mirror) {
+                return mirror;
+            }
+            mirror.lock.unlock();
+        }
+    }
+
+    private void refresh(Mirror mirror, String remoteUrl) {
+        if (Files.isDirectory(mirror.path.resolve(".git"))) {
+            try {
+                gitOperations.fetchAndReset(mirror.path);
+                return;
+            } catch (GitOperationException e) {
+                log.warn("Refreshing git mirror {} failed, cloning it again: {}", mirror.path, e.getMessage());
+            }
+        }
+        FileSystemUtils.deleteRecursively(mirror.path.toFile());
+        gitOperations.cloneRepository(remoteUrl, mirror.path);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        long totalBytes = mirrors.values().stream().mapToLong(mirror -> mirror.sizeBytes).sum();
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        List<Map.Entry<Long, Mirror>> candidates = new ArrayList<>(mirrors.entrySet());
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (Map.Entry<Long, Mirror> candidate : candidates) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            Mirror mirror = candidate.getValue();
+            // Mirrors in use are skipped, they are evicted on a later pass if still needed
+            if (!mirror.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (mirrors.remove(candidate.getKey(), mirror)) {
+                    FileSystemUtils.deleteRecursively(mirror.path.toFile());
+                    totalBytes -= mirror.sizeBytes;
+                    log.info("Evicted git mirror {} ({} bytes)", mirror.path, mirror.sizeBytes);
+                }
+            } finally {
+                mirror.lock.unlock();
+            }
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files
+                .filter(Files::isRegularFile)
+                .mapToLong(file -> {
+                    try {
+                        return Files.size(file);
+                    } catch (IOException e) {
+                        return 0;
+                    }
+                })
+                .sum();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not measure git mirror {}", path, e);
+            return 0;
+        }
+    }
+
+    private static final class Mirror {
+
+        private final Path path;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastAccess;
+        private volatile long sizeBytes;
+
+        private Mirror(Path path) {
+            this.path = path;
+        }
+    }
+}
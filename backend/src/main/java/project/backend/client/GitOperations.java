@@ -0,0 +1,46 @@
+package project.backend.client;
+
+import project.backend.exception.GitOperationException;
+import project.backend.filetree.FileTree;
+
+import java.nio.file.Path;
+
+/**
+ * Git operations on the repositories of the generated GitLab projects.
+ * All remote operations authenticate with the deploy key and fail with a {@link GitOperationException}
+ * once the configured timeout has passed, instead of waiting for input.
+ */
+public interface GitOperations {
+
+    /**
+     * Builds the SSH remote URL of a GitLab project.
+     *
+     * @param rootGroupPath the path of the root group
+     * @param projectPath the path of the project inside the root group
+     */
+    String remoteUrl(String rootGroupPath, String projectPath);
+
+    /**
+     * Clones the default branch of the remote into the given, empty, directory.
+     */
+    void cloneRepository(String remoteUrl, Path directory);
+
+    /**
+     * Fetches the remote of a cloned working tree and resets it to the remote state of its branch,
+     * local commits, changes and untracked files are discarded.
+     */
+    void fetchAndReset(Path directory);
+
+    /**
+     * Pushes the files as the single commit of the main branch of an empty remote.
+     * The commit is built in a temporary repository without writing the files out, the repository is removed afterwards.
+     */
+    void initAndPush(FileTree files, String remoteUrl, String message);
+
+    /**
+     * Commits all additions, changes and deletions of a cloned working tree and pushes them.
+     *
+     * @return false if there was nothing to commit, in which case nothing is pushed
+     */
+    boolean commitAndPush(Path directory, String message);
+}
@@ -0,0 +1,230 @@
+package project.backend.client;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import project.backend.client.dto.GitlabCommitRequest;
+import project.backend.client.dto.GitlabGroupResponse;
+import project.backend.client.dto.GitlabMemberResponse;
+import project.backend.client.dto.GitlabProjectResponse;
+import project.backend.client.dto.GitlabTreeEntryResponse;
+import project.backend.filetree.RemoteTree;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Non-blocking client for the GitLab REST API.
+ * All methods take the access token of the acting user and return cold publishers, nothing is sent before subscription.
+ * HTTP errors are signalled as WebClientResponseException.
+ */
+@Component
+public class GitlabApiClient {
+
+    public static final int DEVELOPER_ACCESS = 30;
+    public static final int MAINTAINER_ACCESS = 40;
+
+    private final WebClient webClient;
+    private final GitlabPaginator paginator;
+
+    public GitlabApiClient(WebClient gitlabWebClient, GitlabPaginator paginator) {
+        this.webClient = gitlabWebClient;
+        this.paginator = paginator;
+    }
+
+    public Mono<GitlabGroupResponse> getGroup(String accessToken, long groupId) {
+        // The embedded project lists are not needed and can be large
+        return webClient.get()
+            .uri("/groups/{id}?with_projects=false", groupId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .bodyToMono(GitlabGroupResponse.class);
+    }
+
+    public Mono<GitlabProjectResponse> getProject(String accessToken, long projectId) {
+        return webClient.get()
+            .uri("/projects/{id}", projectId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .bodyToMono(GitlabProjectResponse.class);
+    }
+
+    public Mono<GitlabProjectResponse> createProject(String accessToken, String name, long namespaceId) {
+        return webClient.post()
+            .uri("/projects")
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(Map.of("name", name, "namespace_id", namespaceId, "visibility", "private"))
+            .retrieve()
+            .bodyToMono(GitlabProjectResponse.class);
+    }
+
+    public Mono<GitlabGroupResponse> createSubgroup(String accessToken, String name, String path, long parentId) {
+        return webClient.post()
+            .uri("/groups")
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(Map.of("name", name, "path", path, "parent_id", parentId, "visibility", "private"))
+            .retrieve()
+            .bodyToMono(GitlabGroupResponse.class);
+    }
+
+    public Mono<Void> deleteProject(String accessToken, long projectId) {
+        return delete(accessToken, "/projects/{id}", projectId);
+    }
+
+    public Mono<Void> deleteGroup(String accessToken, long groupId) {
+        return delete(accessToken, "/groups/{id}", groupId);
+    }
+
+    public Mono<Void> addProjectMember(String accessToken, long projectId, long gitlabUserId, int accessLevel) {
+        return addMember(accessToken, "/projects/{id}/members", projectId, gitlabUserId, accessLevel);
+    }
+
+    public Mono<Void> addGroupMember(String accessToken, long groupId, long gitlabUserId, int accessLevel) {
+        return addMember(accessToken, "/groups/{id}/members", groupId, gitlabUserId, accessLevel);
+    }
+
+    public Mono<Void> updateProjectMember(String accessToken, long projectId, long gitlabUserId, int accessLevel) {
+        return updateMember(accessToken, "/projects/{id}/members/{userId}", projectId, gitlabUserId, accessLevel);
+    }
+
+    public Mono<Void> updateGroupMember(String accessToken, long groupId, long gitlabUserId, int accessLevel) {
+        return updateMember(accessToken, "/groups/{id}/members/{userId}", groupId, gitlabUserId, accessLevel);
+    }
+
+    public Mono<Void> removeProjectMember(String accessToken, long projectId, long gitlabUserId) {
+        return delete(accessToken, "/projects/{id}/members/{userId}", projectId, gitlabUserId);
+    }
+
+    public Mono<Void> removeGroupMember(String accessToken, long groupId, long gitlabUserId) {
+        return delete(accessToken, "/groups/{id}/members/{userId}", groupId, gitlabUserId);
+    }
+
+    public Mono<Void> removeBillableMember(String accessToken, long groupId, long gitlabUserId) {
+        return delete(accessToken, "/groups/{id}/billable_members/{userId}", groupId, gitlabUserId);
+    }
+
+    public Mono<Void> createLabel(String accessToken, long projectId, String name, String color) {
+        return webClient.post()
+            .uri("/projects/{id}/labels", projectId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(Map.of("name", name, "color", color))
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    public Mono<Void> addDeployKey(String accessToken, long projectId, String title, String key, boolean canPush) {
+        return webClient.post()
+            .uri("/projects/{id}/deploy_keys", projectId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(Map.of("title", title, "key", key, "can_push", canPush))
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    public Mono<Void> createCommit(String accessToken, long projectId, GitlabCommitRequest commit) {
+        return webClient.post()
+            .uri("/projects/{id}/repository/commits", projectId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(commit)
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    /**
+     * Lists all files and directories of a branch. An empty repository has no tree and yields nothing.
+     */
+    public Flux<GitlabTreeEntryResponse> listRepositoryTree(String accessToken, long projectId, String ref) {
+        URI firstPage = paginator.firstPage("/projects/{id}/repository/tree")
+            .queryParam("recursive", true)
+            .queryParam("ref", "{ref}")
+            .buildAndExpand(projectId, ref)
+            .encode()
+            .toUri();
+        return paginator.list(accessToken, firstPage, GitlabTreeEntryResponse.class)
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty());
+    }
+
+    /**
+     * Lists the files of a branch with their blob ids.
+     */
+    public Mono<RemoteTree> getRepositoryTree(String accessToken, long projectId, String ref) {
+        return listRepositoryTree(accessToken, projectId, ref)
+            .filter(GitlabTreeEntryResponse::isBlob)
+            .collectMap(GitlabTreeEntryResponse::path, GitlabTreeEntryResponse::id)
+            .map(RemoteTree::of);
+    }
+
+    /**
+     * Reads the raw content of a blob by its id, as listed in the repository tree.
+     */
+    public Mono<byte[]> getRepositoryBlob(String accessToken, long projectId, String blobId) {
+        return webClient.get()
+            .uri("/projects/{id}/repository/blobs/{sha}/raw", projectId, blobId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .bodyToMono(byte[].class);
+    }
+
+    public Flux<GitlabGroupResponse> listTopLevelGroups(String accessToken) {
+        URI firstPage = paginator.firstPage("/groups")
+            .queryParam("top_level_only", true)
+            .encode()
+            .build()
+            .toUri();
+        return paginator.list(accessToken, firstPage, GitlabGroupResponse.class);
+    }
+
+    public Flux<GitlabProjectResponse> listGroupProjects(String accessToken, long groupId) {
+        return paginator.list(accessToken, paginator.firstPage("/groups/{id}/projects").buildAndExpand(groupId).encode().toUri(), GitlabProjectResponse.class);
+    }
+
+    public Flux<GitlabGroupResponse> listSubgroups(String accessToken, long groupId) {
+        return paginator.list(accessToken, paginator.firstPage("/groups/{id}/subgroups").buildAndExpand(groupId).encode().toUri(), GitlabGroupResponse.class);
+    }
+
+    public Flux<GitlabMemberResponse> listBillableMembers(String accessToken, long groupId) {
+        return paginator.list(accessToken, paginator.firstPage("/groups/{id}/billable_members").buildAndExpand(groupId).encode().toUri(), GitlabMemberResponse.class);
+    }
+
+    public Flux<GitlabMemberResponse> listProjectMembers(String accessToken, long projectId) {
+        return paginator.list(accessToken, paginator.firstPage("/projects/{id}/members").buildAndExpand(projectId).encode().toUri(), GitlabMemberResponse.class);
+    }
+
+    public Flux<GitlabMemberResponse> listGroupMembers(String accessToken, long groupId) {
+        return paginator.list(accessToken, paginator.firstPage("/groups/{id}/members").buildAndExpand(groupId).encode().toUri(), GitlabMemberResponse.class);
+    }
+
+    private Mono<Void> addMember(String accessToken, String path, long sourceId, long gitlabUserId, int accessLevel) {
+        return webClient.post()
+            .uri(path, sourceId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(Map.of("user_id", gitlabUserId, "access_level", accessLevel))
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    private Mono<Void> updateMember(String accessToken, String path, long sourceId, long gitlabUserId, int accessLevel) {
+        return webClient.put()
+            .uri(path, sourceId, gitlabUserId)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .bodyValue(Map.of("access_level", accessLevel))
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    private Mono<Void> delete(String accessToken, String path, Object... uriVariables) {
+        return webClient.delete()
+            .uri(path, uriVariables)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+}
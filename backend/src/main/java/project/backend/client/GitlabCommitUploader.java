@@ -0,0 +1,140 @@
+package project.backend.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import project.backend.client.dto.GitlabCommitAction;
+import project.backend.client.dto.GitlabCommitRequest;
+import project.backend.filetree.FileNode;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RemoteTree;
+import project.backend.filetree.RepositoryChangeSet;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uploads a file tree as a single commit through the GitLab repository commits API,
+ * without a local repository, deploy key or SSH connection.
+ * Files that changed on the branch are updated, new files are created and files missing from the tree are deleted.
+ */
+@Slf4j
+@Component
+public class GitlabCommitUploader {
+
+    /**
+     * Outcome of an upload through the commits API.
+     */
+    public enum Result {
+        COMMITTED,
+        UNCHANGED,
+        /**
+         * The files exceed the configured payload limit, nothing was sent. The caller should use the git path instead.
+         */
+        TOO_LARGE
+    }
+
+    private final GitlabApiClient gitlabApiClient;
+    private final long maxPayloadBytes;
+
+    public GitlabCommitUploader(GitlabApiClient gitlabApiClient,
+                                @Value("${gitlab.upload.commit-api-max-payload}") DataSize maxPayload) {
+        this.gitlabApiClient = gitlabApiClient;
+        this.maxPayloadBytes = maxPayload.toBytes();
+    }
+
+    /**
+     * Commits the content of the file tree to the branch. Files whose blob id matches the one on the branch are not sent.
+     *
+     * @param initial whether the repository is still empty, skips reading the existing tree
+     */
+    public Mono<Result> upload(String accessToken, long projectId, String branch, FileTree files, String message, boolean initial) {
+        Mono<RemoteTree> existingFiles = initial
+            ? Mono.just(RemoteTree.empty())
+            : gitlabApiClient.getRepositoryTree(accessToken, projectId, branch);
+
+        return existingFiles.flatMap(existing ->
+            commit(accessToken, projectId, branch, RepositoryChangeSet.between(existing, files), message));
+    }
+
+    /**
+     * Commits the changes to the branch, an empty change set sends nothing.
+     */
+    public Mono<Result> commit(String accessToken, long projectId, String branch, RepositoryChangeSet changes, String message) {
+        if (changes.isEmpty()) {
+            return Mono.just(Result.UNCHANGED);
+        }
+        // Encoding never shrinks the content, files above the limit are rejected before they are encoded
+        if (changes.totalBytes() > maxPayloadBytes) {
+            log.info("Changed files are {} bytes, above the commits API limit of {} bytes", changes.totalBytes(), maxPayloadBytes);
+            return Mono.just(Result.TOO_LARGE);
+        }
+
+        return Mono.fromCallable(() -> buildPayload(changes))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(payload -> {
+                // Binary files are sent base64 encoded, a third larger than on disk
+                if (payload.contentBytes() > maxPayloadBytes) {
+                    log.info("Encoded files are {} bytes, above the commits API limit of {} bytes", payload.contentBytes(), maxPayloadBytes);
+                    return Mono.just(Result.TOO_LARGE);
+                }
+                log.info("Committing {} file actions to project {} on {}", payload.actions().size(), projectId, branch);
+                return gitlabApiClient.createCommit(accessToken, projectId, new GitlabCommitRequest(branch, message, payload.actions()))
+                    .thenReturn(Result.COMMITTED);
+            });
+    }
+
+    private static CommitPayload buildPayload(RepositoryChangeSet changes) {
+        List<GitlabCommitAction> actions = new ArrayList<>(changes.size());
+        long contentBytes = 0;
+        for (Map.Entry<String, FileNode> file : changes.added().entrySet()) {
+            contentBytes += add(actions, encode("create", file.getKey(), file.getValue().toByteArray()), file.getValue().size());
+        }
+        for (Map.Entry<String, FileNode> file : changes.modified().entrySet()) {
+            contentBytes += add(actions, encode("update", file.getKey(), file.getValue().toByteArray()), file.getValue().size());
+        }
+        for (String deleted : changes.deleted()) {
+            actions.add(GitlabCommitAction.delete(deleted));
+        }
+        return new CommitPayload(actions, contentBytes);
+    }
+
+    /**
+     * Adds the action and returns the size of its content as sent, text keeps its size and base64 is plain ASCII.
+     */
+    private static long add(List<GitlabCommitAction> actions, GitlabCommitAction action, long size) {
+        actions.add(action);
+        return "base64".equals(action.encoding()) ? action.content().length() : size;
+    }
+
+    /**
+     * Sends text files as they are and everything that is not valid UTF-8, like the CLI jar, base64 encoded.
+     */
+    private static GitlabCommitAction encode(String action, String filePath, byte[] content) {
+        try {
+            String text = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(content))
+                .toString();
+            if (text.indexOf('\0') < 0) {
+                return new GitlabCommitAction(action, filePath, text, "text");
+            }
+        } catch (CharacterCodingException e) {
+            // Binary content, sent as base64 below
+        }
+        return new GitlabCommitAction(action, filePath, Base64.getEncoder().encodeToString(content), "base64");
+    }
+
+    private record CommitPayload(List<GitlabCommitAction> actions, long contentBytes) {
+    }
+}
@@ -0,0 +1,19 @@
+package project.backend.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Holds the single mapper used to decode GitLab API responses.
+ * It is deliberately not a bean, so it does not replace the application's own ObjectMapper.
+ */
+public final class GitlabJson {
+
+    public static final ObjectMapper MAPPER = JsonMapper.builder()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    private GitlabJson() {
+    }
+}
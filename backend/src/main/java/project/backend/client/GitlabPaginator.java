@@ -0,0 +1,88 @@
+package project.backend.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Iterates over paginated GitLab list endpoints.
+ * Pages are requested with a large per_page and fetched only once the previous page is used up. The next page is
+ * taken from the Link header, which GitLab sends for both offset and keyset pagination. Each page is read with the
+ * streaming JSON decoder, so no String body or JsonNode tree is built.
+ */
+@Slf4j
+@Component
+public class GitlabPaginator {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"next\"");
+
+    private final WebClient webClient;
+    private final String apiUrl;
+    private final int pageSize;
+
+    public GitlabPaginator(WebClient gitlabWebClient,
+                           @Value("${gitlab.base-url}/api/v4") String apiUrl,
+                           @Value("${gitlab.client.page-size}") int pageSize) {
+        this.webClient = gitlabWebClient;
+        this.apiUrl = apiUrl;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts the URL of the first page of a list endpoint, query parameters and path variables are added by the caller.
+     */
+    public UriComponentsBuilder firstPage(String path) {
+        return UriComponentsBuilder.fromHttpUrl(apiUrl)
+            .path(path)
+            .queryParam("per_page", pageSize);
+    }
+
+    /**
+     * Emits the elements of all pages, starting at the given page.
+     * The next page is only requested once all elements of the current page were consumed, so at most one page is held
+     * in memory. HTTP errors are signalled as WebClientResponseException.
+     */
+    public <T> Flux<T> list(String accessToken, URI page, Class<T> type) {
+        log.debug("Fetching GitLab page {}", page);
+        return webClient.get()
+            .uri(page)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .exchangeToMono(response -> {
+                if (response.statusCode().isError()) {
+                    return response.createException().flatMap(e -> Mono.<Page<T>>error(e));
+                }
+                URI nextPage = parseNextLink(response.headers().asHttpHeaders());
+                return response.bodyToFlux(type).collectList().map(elements -> new Page<>(elements, nextPage));
+            })
+            .flatMapMany(current -> {
+                Flux<T> elements = Flux.fromIterable(current.elements());
+                if (current.nextPage() == null) {
+                    return elements;
+                }
+                return elements.concatWith(Flux.defer(() -> list(accessToken, current.nextPage(), type)));
+            });
+    }
+
+    private static URI parseNextLink(HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            Matcher matcher = NEXT_LINK.matcher(link);
+            if (matcher.find()) {
+                return URI.create(matcher.group(1));
+            }
+        }
+        return null;
+    }
+
+    private record Page<T>(List<T> elements, URI nextPage) {
+    }
+}
@@ -0,0 +1,50 @@
+package project.backend.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of {@link GitlabRateLimitInterceptor}. Requests are delayed on a timer instead of a
+ * sleeping thread, and share the buckets of the blocking client through the same {@link GitlabRateLimiter}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class GitlabRateLimitFilter implements ExchangeFilterFunction {
+
+    private final GitlabRateLimiter rateLimiter;
+    private final int maxRetries;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return exchange(request, next, GitlabRateLimiter.keyFor(request.headers()), 0);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, String key, int attempt) {
+        return Mono.defer(() -> {
+            long delay = rateLimiter.reserve(key);
+            Mono<ClientResponse> response = delay > 0
+                ? Mono.delay(Duration.ofNanos(delay)).then(next.exchange(request))
+                : next.exchange(request);
+
+            return response.flatMap(clientResponse -> {
+                int statusCode = clientResponse.statusCode().value();
+                rateLimiter.onResponse(key, statusCode, clientResponse.headers().asHttpHeaders());
+
+                if (statusCode != HttpStatus.TOO_MANY_REQUESTS.value() || attempt >= maxRetries) {
+                    return Mono.just(clientResponse);
+                }
+
+                log.info("Retrying {} {} after rate limit ({}/{})", request.method(), request.url().getPath(), attempt + 1, maxRetries);
+                return clientResponse.releaseBody().then(exchange(request, next, key, attempt + 1));
+            });
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package project.backend.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Routes every request of the GitLab RestTemplate through the {@link GitlabRateLimiter}
+ * and retries requests that were answered with 429 Too Many Requests.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class GitlabRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final GitlabRateLimiter rateLimiter;
+    private final int maxRetries;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String key = GitlabRateLimiter.keyFor(request.getHeaders());
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                rateLimiter.acquire(key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for GitLab rate limit");
+            }
+
+            ClientHttpResponse response = execution.execute(request, body);
+            int statusCode = response.getStatusCode().value();
+            rateLimiter.onResponse(key, statusCode, response.getHeaders());
+
+            if (statusCode != HttpStatus.TOO_MANY_REQUESTS.value() || attempt >= maxRetries) {
+                return response;
+            }
+
+            log.info("Retrying {} {} after rate limit ({}/{})", request.getMethod(), request.getURI().getPath(), attempt + 1, maxRetries);
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package project.backend.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces GitLab API traffic with one token bucket per access token.
+ * The refill rate starts at the configured default and follows the budget the server reports
+ * through the RateLimit-Remaining / RateLimit-Reset headers. A 429 blocks the bucket until Retry-After has passed.
+ * Callers reserve a slot with {@link #reserve(String)} and wait the returned delay themselves,
+ * so both the blocking and the reactive client can share the same buckets.
+ */
+@Slf4j
+@Component
+public class GitlabRateLimiter {
+
+    public static final String ANONYMOUS_KEY = "anonymous";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${gitlab.rate-limit.requests-per-second}")
+    private double defaultRate;
+
+    @Value("${gitlab.rate-limit.burst}")
+    private int burst;
+
+    @Value("${gitlab.rate-limit.default-retry-after}")
+    private Duration defaultRetryAfter;
+
+    @Value("${gitlab.rate-limit.idle-bucket-expiry}")
+    private Duration idleBucketExpiry;
+
+    /**
+     * Reserves the next request slot for the given key.
+     *
+     * @param key the bucket key, usually the Authorization header value
+     * @return the number of nanoseconds the caller has to wait before sending the request
+     */
+    public long reserve(String key) {
+        return bucketFor(key).reserve(System.nanoTime());
+    }
+
+    /**
+     * Blocks the current thread until a request slot for the given key is available.
+     */
+    public void acquire(String key) throws InterruptedException {
+        long delay = reserve(key);
+        if (delay > 0) {
+            log.debug("Delaying GitLab request by {} ms", TimeUnit.NANOSECONDS.toMillis(delay));
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Feeds the rate limit headers of a response back into the bucket of the given key.
+     */
+    public void onResponse(String key, int statusCode, HttpHeaders headers) {
+        Bucket bucket = bucketFor(key);
+        long now = System.nanoTime();
+
+        Long remaining = parseLong(headers.getFirst("RateLimit-Remaining"));
+        Long resetEpochSeconds = parseLong(headers.getFirst("RateLimit-Reset"));
+        long resetInNanos = resetEpochSeconds != null
+            ? TimeUnit.MILLISECONDS.toNanos(resetEpochSeconds * 1000 - System.currentTimeMillis())
+            : -1;
+
+        if (statusCode == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            long retryAfter = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            if (retryAfter < 0) {
+                retryAfter = resetInNanos > 0 ? resetInNanos : defaultRetryAfter.toNanos();
+            }
+            log.warn("GitLab rate limit hit, pausing requests for {} ms", TimeUnit.NANOSECONDS.toMillis(retryAfter));
+            bucket.block(now, now + retryAfter);
+            return;
+        }
+
+        if (remaining != null && resetInNanos > 0) {
+            if (remaining <= 0) {
+                bucket.block(now, now + resetInNanos);
+            } else {
+                // Spread the remaining budget evenly over the rest of the window
+                bucket.setRate(now, remaining * (double) NANOS_PER_SECOND / resetInNanos);
+            }
+        }
+    }
+
+    public static String keyFor(HttpHeaders requestHeaders) {
+        String authorization = requestHeaders.getFirst(HttpHeaders.AUTHORIZATION);
+        return authorization != null ? authorization : ANONYMOUS_KEY;
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - idleBucketExpiry.toNanos();
+        buckets.values().removeIf(bucket -> bucket.isIdleSince(threshold));
+    }
+
+    private Bucket bucketFor(String key) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(defaultRate, burst, System.nanoTime()));
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long parseRetryAfter(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Long seconds = parseLong(value);
+        if (seconds != null) {
+            return TimeUnit.SECONDS.toNanos(Math.max(seconds, 0));
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(date.toInstant().toEpochMilli() - System.currentTimeMillis(), 0));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static final class Bucket {
+
+        private final int capacity;
+        private double rate;
+        private double tokens;
+        private long lastRefill;
+        private long blockedUntil;
+        private long lastUsed;
+
+        Bucket(double rate, int capacity, long now) {
+            this.rate = rate;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.blockedUntil = now;
+            this.lastUsed = now;
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            lastUsed = now;
+            // Tokens may go negative, later callers then queue up behind earlier reservations
+            tokens -= 1;
+            long tokenWait = tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+            return Math.max(tokenWait, blockedUntil - now);
+        }
+
+        synchronized void block(long now, long until) {
+            refill(now);
+            blockedUntil = Math.max(blockedUntil, until);
+            tokens = Math.min(tokens, 0);
+        }
+
+        synchronized void setRate(long now, double newRate) {
+            refill(now);
+            rate = Math.max(newRate, 0.01);
+        }
+
+        synchronized boolean isIdleSince(long threshold) {
+            return lastUsed - threshold < 0 && blockedUntil - System.nanoTime() < 0;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * rate / NANOS_PER_SECOND);
+                lastRefill = now;
+            }
+        }
+    }
+}
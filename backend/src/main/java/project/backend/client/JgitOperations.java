@@ -0,0 +1,252 @@
+package project.backend.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.CloneCommand;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.TransportCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.SshTransport;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.transport.sshd.SshdSessionFactory;
+import org.eclipse.jgit.transport.sshd.SshdSessionFactoryBuilder;
+import org.eclipse.jgit.util.FS;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import project.backend.exception.GitOperationException;
+import project.backend.filetree.FileNode;
+import project.backend.filetree.FileTree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process implementation of {@link GitOperations} on JGit, SSH is handled by Apache MINA sshd.
+ * Host keys are checked against the user's known_hosts file. Unknown hosts are rejected, there is nobody to ask.
+ * Clones and fetches are shallow by default and skip tags, only the latest commit of the branch is transferred.
+ * Commits on top of a shallow clone push fine, the remote already has their parents.
+ */
+@Slf4j
+@Component
+public class JgitOperations implements GitOperations {
+
+    private static final String REMOTE = "origin";
+    private static final String BRANCH = "main";
+
+    private final SshdSessionFactory sshSessionFactory;
+    private final String sshHost;
+    private final int timeoutSeconds;
+    private final int cloneDepth;
+    private final ReferenceBlobStore referenceBlobStore;
+
+    public JgitOperations(@Value("${gitlab.base-url}") String baseUrl,
+                          @Value("${gitlab.git.private-key}") String privateKey,
+                          @Value("${gitlab.git.timeout}") Duration timeout,
+                          @Value("${gitlab.git.clone-depth}") int cloneDepth,
+                          ReferenceBlobStore referenceBlobStore) {
+        this.sshHost = URI.create(baseUrl).getHost();
+        this.timeoutSeconds = (int) Math.max(timeout.toSeconds(), 1);
+        this.cloneDepth = Math.max(cloneDepth, 0);
+        this.referenceBlobStore = referenceBlobStore;
+
+        File home = FS.DETECTED.userHome();
+        Path privateKeyPath = Path.of(privateKey);
+        this.sshSessionFactory = new SshdSessionFactoryBuilder()
+            .setHomeDirectory(home)
+            .setSshDirectory(new File(home, ".ssh"))
+            .setDefaultIdentities(sshDirectory -> List.of(privateKeyPath))
+            .setPreferredAuthentications("publickey")
+            .build(null);
+    }
+
+    @PreDestroy
+    public void close() {
+        sshSessionFactory.close();
+    }
+
+    @Override
+    public String remoteUrl(String rootGroupPath, String projectPath) {
+        return "git@" + sshHost + ":" + rootGroupPath + "/" + projectPath + ".git";
+    }
+
+    @Override
+    public void cloneRepository(String remoteUrl, Path directory) {
+        log.info("Cloning {} into {}", remoteUrl, directory);
+        CloneCommand clone = Git.cloneRepository()
+            .setURI(remoteUrl)
+            .setDirectory(directory.toFile())
+            .setNoTags();
+        if (cloneDepth > 0) {
+            clone.setDepth(cloneDepth);
+        }
+        try (Git ignored = configure(clone).call()) {
+            log.debug("Cloned {}", remoteUrl);
+        } catch (GitAPIException e) {
+            throw new GitOperationException("Cloning " + remoteUrl + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void fetchAndReset(Path directory) {
+        try (Git git = Git.open(directory.toFile())) {
+            FetchCommand fetch = git.fetch()
+                .setRemote(REMOTE)
+                .setRemoveDeletedRefs(true)
+                .setTagOpt(TagOpt.NO_TAGS);
+            if (cloneDepth > 0) {
+                fetch.setDepth(cloneDepth);
+            }
+            configure(fetch).call();
+
+            String branch = git.getRepository().getBranch();
+            Ref remoteBranch = git.getRepository().exactRef(Constants.R_REMOTES + REMOTE + "/" + branch);
+            if (remoteBranch == null) {
+                throw new GitOperationException("Branch " + branch + " of " + directory + " does not exist on " + REMOTE);
+            }
+            git.reset().setMode(ResetCommand.ResetType.HARD).setRef(remoteBranch.getName()).call();
+            git.clean().setCleanDirectories(true).setForce(true).call();
+            log.debug("Reset {} to {}", directory, remoteBranch.getObjectId().name());
+        } catch (GitAPIException | IOException e) {
+            throw new GitOperationException("Fetching into " + directory + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void initAndPush(FileTree files, String remoteUrl, String message) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("repository_upload_");
+            try (Repository repository = FileRepositoryBuilder.create(directory.toFile())) {
+                repository.create(true);
+                // Objects of the reference files are read from the shared store, they are neither copied nor compressed again
+                Files.writeString(directory.resolve(Constants.OBJECTS).resolve(Constants.INFO_ALTERNATES),
+                    referenceBlobStore.objectDirectory().toAbsolutePath() + "\n");
+
+                ObjectId commitId = commitFiles(repository, files, message);
+                RefUpdate update = repository.updateRef(Constants.R_HEADS + BRANCH);
+                update.setNewObjectId(commitId);
+                update.update();
+
+                try (Git git = Git.wrap(repository)) {
+                    git.remoteAdd().setName(REMOTE).setUri(new URIish(remoteUrl)).call();
+                    push(git, remoteUrl, BRANCH);
+                }
+            }
+        } catch (GitAPIException | IOException | URISyntaxException e) {
+            throw new GitOperationException("Pushing to " + remoteUrl + " failed: " + e.getMessage(), e);
+        } finally {
+            if (directory != null) {
+                FileSystemUtils.deleteRecursively(directory.toFile());
+            }
+        }
+    }
+
+    /**
+     * Writes the files as the single root commit of the repository, straight from memory without a working tree.
+     * Blobs already present in the object database, like the reference files, are found by their known id.
+     */
+    private ObjectId commitFiles(Repository repository, FileTree files, String message) throws IOException {
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            DirCache index = DirCache.newInCore();
+            DirCacheBuilder builder = index.builder();
+            for (Map.Entry<String, FileNode> file : files.files().entrySet()) {
+                FileNode node = file.getValue();
+                ObjectId blobId = ObjectId.fromString(node.getBlobId());
+                if (!repository.getObjectDatabase().has(blobId)) {
+                    try (InputStream in = node.openStream()) {
+                        inserter.insert(Constants.OBJ_BLOB, node.size(), in);
+                    }
+                }
+
+                DirCacheEntry entry = new DirCacheEntry(file.getKey());
+                entry.setFileMode(node.getMode() == project.backend.filetree.FileMode.EXECUTABLE
+                    ? FileMode.EXECUTABLE_FILE
+                    : FileMode.REGULAR_FILE);
+                entry.setObjectId(blobId);
+                builder.add(entry);
+            }
+            builder.finish();
+
+            PersonIdent author = new PersonIdent(repository);
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(index.writeTree(inserter));
+            commit.setAuthor(author);
+            commit.setCommitter(author);
+            commit.setMessage(message);
+            ObjectId commitId = inserter.insert(commit);
+            inserter.flush();
+            return commitId;
+        }
+    }
+
+    @Override
+    public boolean commitAndPush(Path directory, String message) {
+        try (Git git = Git.open(directory.toFile())) {
+            // The first add picks up new and modified files, the second one deleted files
+            git.add().addFilepattern(".").call();
+            git.add().addFilepattern(".").setUpdate(true).call();
+            if (git.status().call().isClean()) {
+                log.info("Nothing to commit in {}", directory);
+                return false;
+            }
+            git.commit().setMessage(message).call();
+            push(git, REMOTE, git.getRepository().getBranch());
+            return true;
+        } catch (GitAPIException | IOException e) {
+            throw new GitOperationException("Pushing " + directory + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void push(Git git, String remote, String branch) throws GitAPIException {
+        Iterable<PushResult> results = configure(git.push()
+            .setRemote(REMOTE)
+            .add(branch))
+            .call();
+
+        for (PushResult result : results) {
+            for (RemoteRefUpdate update : result.getRemoteUpdates()) {
+                if (update.getStatus() != RemoteRefUpdate.Status.OK && update.getStatus() != RemoteRefUpdate.Status.UP_TO_DATE) {
+                    throw new GitOperationException("Push of " + update.getRemoteName() + " to " + remote + " was rejected: "
+                        + update.getStatus() + (update.getMessage() != null ? " (" + update.getMessage() + ")" : ""));
+                }
+            }
+        }
+    }
+
+    private <C extends TransportCommand<C, ?>> C configure(C command) {
+        return command
+            .setTimeout(timeoutSeconds)
+            .setTransportConfigCallback(transport -> {
+                if (transport instanceof SshTransport sshTransport) {
+                    sshTransport.setSshSessionFactory(sshSessionFactory);
+                }
+            });
+    }
+}
@@ -0,0 +1,159 @@
+package project.backend.client;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import project.backend.exception.GitOperationException;
+import project.backend.filetree.FileNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The reference files copied unchanged into every generated repository, such as the CI configuration and the CLI jar.
+ * They are read and hashed once at startup and kept as shared {@link FileNode}s. A local git object store holds them
+ * compressed in a pack, repositories built on top of it borrow the objects instead of hashing and compressing them again.
+ */
+@Slf4j
+@Component
+public class ReferenceBlobStore {
+
+    private static final String LOCATION = "classpath*:repository/*";
+    private static final String REFERENCE_REF = "refs/reference/files";
+
+    private final Path directory;
+    private final Map<String, FileNode> filesByName = new HashMap<>();
+    private final Map<String, FileNode> filesByBlobId = new HashMap<>();
+    private Path storeDirectory;
+
+    public ReferenceBlobStore(@Value("${gitlab.git.reference-store.directory}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @PostConstruct
+    public void loadReferenceFiles() throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            if (resource.isReadable() && resource.getFilename() != null) {
+                try (InputStream in = resource.getInputStream()) {
+                    FileNode file = FileNode.of(in.readAllBytes());
+                    filesByName.put(resource.getFilename(), file);
+                    filesByBlobId.put(file.getBlobId(), file);
+                }
+            }
+        }
+
+        writeObjectStore();
+        log.info("Loaded {} reference files into {}", filesByName.size(), storeDirectory);
+    }
+
+    /**
+     * Packs the reference files into an object store named after the id of their tree, so a changed build gets its own
+     * store while other instances sharing the directory keep using theirs. An existing store is reused as is, a missing
+     * one is built in a temporary directory and moved into place in one step, so a store is never seen half written.
+     * All objects end up in a single pack, which is what other repositories reuse when they push.
+     */
+    private void writeObjectStore() throws IOException {
+        ObjectId treeId = new ObjectInserter.Formatter().idFor(formatTree());
+        storeDirectory = directory.resolve(treeId.name());
+        if (Files.isDirectory(storeDirectory)) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        Path building = Files.createTempDirectory(directory, "building-");
+        try {
+            buildObjectStore(building);
+            Files.move(building, storeDirectory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            // Another instance built the same store in the meantime
+            log.debug("Reference object store {} was created concurrently", storeDirectory);
+        } finally {
+            FileSystemUtils.deleteRecursively(building);
+        }
+    }
+
+    private void buildObjectStore(Path building) throws IOException {
+        try (Repository repository = FileRepositoryBuilder.create(building.toFile())) {
+            repository.create(true);
+
+            try (ObjectInserter inserter = repository.newObjectInserter()) {
+                for (FileNode file : filesByName.values()) {
+                    try (InputStream in = file.openStream()) {
+                        inserter.insert(Constants.OBJ_BLOB, file.size(), in);
+                    }
+                }
+                ObjectId treeId = inserter.insert(formatTree());
+                inserter.flush();
+
+                // Only objects reachable from a ref are packed
+                RefUpdate update = repository.updateRef(REFERENCE_REF);
+                update.setNewObjectId(treeId);
+                update.setForceUpdate(true);
+                update.update();
+            }
+
+            Git.wrap(repository).gc().call();
+        } catch (GitAPIException e) {
+            throw new GitOperationException("Packing the reference files in " + building + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the tree listing the reference files by name.
+     */
+    private TreeFormatter formatTree() {
+        TreeFormatter tree = new TreeFormatter();
+        for (Map.Entry<String, FileNode> file : new TreeMap<>(filesByName).entrySet()) {
+            tree.append(file.getKey(), FileMode.REGULAR_FILE, ObjectId.fromString(file.getValue().getBlobId()));
+        }
+        return tree;
+    }
+
+    /**
+     * Returns the reference file with the given resource name, null if it is not bundled.
+     */
+    public FileNode get(String name) {
+        return filesByName.get(name);
+    }
+
+    public boolean contains(String blobId) {
+        return filesByBlobId.containsKey(blobId);
+    }
+
+    /**
+     * Returns the reference files by resource name.
+     */
+    public Map<String, FileNode> files() {
+        return Collections.unmodifiableMap(filesByName);
+    }
+
+    /**
+     * Returns the git object directory holding the packed reference files, to be used as an alternate object store.
+     */
+    public Path objectDirectory() {
+        return storeDirectory.resolve(Constants.OBJECTS);
+    }
+}
@@ -0,0 +1,15 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One file action of a commit created through the repository commits API.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GitlabCommitAction(String action, @JsonProperty("file_path") String filePath, String content, String encoding) {
+
+    public static GitlabCommitAction delete(String filePath) {
+        return new GitlabCommitAction("delete", filePath, null, null);
+    }
+}
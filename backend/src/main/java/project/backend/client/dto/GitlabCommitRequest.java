@@ -0,0 +1,8 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record GitlabCommitRequest(String branch, @JsonProperty("commit_message") String commitMessage, List<GitlabCommitAction> actions) {
+}
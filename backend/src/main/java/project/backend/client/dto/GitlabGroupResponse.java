@@ -0,0 +1,8 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitlabGroupResponse(Long id, String name, String path, @JsonProperty("full_path") String fullPath, @JsonProperty("web_url") String webUrl) {
+}
@@ -0,0 +1,8 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitlabMemberResponse(Long id, String username, @JsonProperty("access_level") Integer accessLevel) {
+}
@@ -0,0 +1,9 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitlabProjectResponse(Long id, String name, String path, @JsonProperty("path_with_namespace") String pathWithNamespace, @JsonProperty("web_url") String webUrl,
+                                    @JsonProperty("default_branch") String defaultBranch) {
+}
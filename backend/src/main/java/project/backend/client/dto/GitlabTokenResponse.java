@@ -0,0 +1,18 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitlabTokenResponse(@JsonProperty("access_token") String accessToken, @JsonProperty("refresh_token") String refreshToken, @JsonProperty("created_at") Integer createdAt, @JsonProperty("expires_in") Integer expiresIn) {
+
+    /**
+     * Returns the expiration time as epoch seconds, or null if the response did not contain one.
+     */
+    public Integer expirationTime() {
+        if (createdAt == null || expiresIn == null) {
+            return null;
+        }
+        return createdAt + expiresIn;
+    }
+}
@@ -0,0 +1,11 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitlabTreeEntryResponse(String id, String name, String type, String path, String mode) {
+
+    public boolean isBlob() {
+        return "blob".equals(type);
+    }
+}
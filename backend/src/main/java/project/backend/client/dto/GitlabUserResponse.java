@@ -0,0 +1,8 @@
+package project.backend.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitlabUserResponse(Long id, String username, String email, @JsonProperty("avatar_url") String avatarUrl) {
+}
@@ -0,0 +1,121 @@
+package project.backend.config;
+
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import project.backend.client.GitlabJson;
+import project.backend.client.GitlabRateLimitInterceptor;
+import project.backend.client.GitlabRateLimiter;
+import project.backend.client.GitlabRateLimitFilter;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Shared HTTP clients for all calls to the GitLab API, a blocking RestTemplate and a non-blocking WebClient.
+ * Connections are pooled and kept alive, so consecutive build steps reuse the same TLS session
+ * instead of opening a new connection for every request. All requests are paced by the {@link GitlabRateLimiter}
+ * and JSON responses are decoded with {@link GitlabJson#MAPPER} straight from the response stream.
+ */
+@Configuration
+public class GitlabClientConfig {
+
+    @Value("${gitlab.base-url}")
+    private String baseUrl;
+
+    @Value("${gitlab.client.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${gitlab.client.read-timeout}")
+    private Duration readTimeout;
+
+    @Value("${gitlab.client.pool-timeout}")
+    private Duration poolTimeout;
+
+    @Value("${gitlab.client.max-connections}")
+    private int maxConnections;
+
+    @Value("${gitlab.client.idle-eviction}")
+    private Duration idleEviction;
+
+    @Value("${gitlab.rate-limit.max-retries}")
+    private int maxRetries;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient gitlabHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            // All traffic goes to a single host, so one route may use the whole pool
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                .build())
+            .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeout.toMillis()))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+            .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gitlabConnectionProvider() {
+        return ConnectionProvider.builder("gitlab")
+            .maxConnections(maxConnections)
+            .pendingAcquireTimeout(poolTimeout)
+            .maxIdleTime(idleEviction)
+            .build();
+    }
+
+    @Bean
+    public WebClient gitlabWebClient(ConnectionProvider gitlabConnectionProvider, GitlabRateLimiter gitlabRateLimiter) {
+        HttpClient httpClient = HttpClient.create(gitlabConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .responseTimeout(readTimeout);
+
+        return WebClient.builder()
+            .baseUrl(baseUrl + "/api/v4")
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> {
+                codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(GitlabJson.MAPPER));
+                codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(GitlabJson.MAPPER));
+            })
+            .filter(new GitlabRateLimitFilter(gitlabRateLimiter, maxRetries))
+            .build();
+    }
+
+    @Bean
+    public RestTemplate gitlabRestTemplate(CloseableHttpClient gitlabHttpClient, GitlabRateLimiter gitlabRateLimiter) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(gitlabHttpClient));
+        MappingJackson2HttpMessageConverter gitlabConverter = new MappingJackson2HttpMessageConverter(GitlabJson.MAPPER);
+        restTemplate.getMessageConverters().replaceAll(converter ->
+            converter instanceof MappingJackson2HttpMessageConverter ? gitlabConverter : converter);
+        restTemplate.getInterceptors().add(new GitlabRateLimitInterceptor(gitlabRateLimiter, maxRetries));
+        return restTemplate;
+    }
+}
@@ -0,0 +1,18 @@
+package project.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildPipelineResponseDto {
+
+    boolean success;
+    List<BuildStepResultDto> steps;
+}
@@ -0,0 +1,19 @@
+package project.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildStepResultDto {
+
+    String step;
+    boolean success;
+    boolean skipped;
+    String message;
+    long durationMillis;
+}
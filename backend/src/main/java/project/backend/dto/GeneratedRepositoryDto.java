@@ -0,0 +1,17 @@
+package project.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import project.backend.filetree.FileTree;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneratedRepositoryDto {
+
+    String name;
+    FileTree files;
+}
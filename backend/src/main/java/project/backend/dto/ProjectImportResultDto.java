@@ -0,0 +1,23 @@
+package project.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one document of a bulk project import, written as one line of the response.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectImportResultDto {
+    int line;
+    boolean success;
+    Long projectId;
+    String name;
+    List<String> errors;
+}
@@ -36,6 +36,9 @@ public class AuthEndpoint {
     @Value("${spring.security.oauth2.client.registration.gitlab.scope}")
     private String scope;
 
+    @Value("${spring.security.oauth2.client.provider.gitlab.authorization-uri}")
+    private String authorizationUri;
+
     private final Map<String, String> clientTokenStateMap = new HashMap<>();
     private final Map<String, Long> clientTokenGitLabID = new HashMap<>();
 
@@ -55,7 +58,7 @@ public class AuthEndpoint {
         clientTokenGitLabID.put(clientToken, -1L);
 
         return OAuthUrlResponse.builder()
-            .url("https://gitlab.com/oauth/authorize?client_id=" + clientID + "&redirect_uri=" + redirectURI + "&response_type=code&state=" + state + "&scope=" + scope)
+            .url(authorizationUri + "?client_id=" + clientID + "&redirect_uri=" + redirectURI + "&response_type=code&state=" + state + "&scope=" + scope)
             .state(state)
             .build();
     }
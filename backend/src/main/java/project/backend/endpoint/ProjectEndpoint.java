@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,10 +13,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import project.backend.dto.*;
 import project.backend.exception.AccessForbiddenException;
 import project.backend.exception.NotFoundException;
 import project.backend.service.ExampleService;
+import project.backend.service.ProjectImportService;
 import project.backend.service.ProjectService;
 
 import java.security.Principal;
@@ -28,6 +31,7 @@ import java.util.List;
 public class ProjectEndpoint {
 
     private final ProjectService projectService;
+    private final ProjectImportService projectImportService;
 
     @PreAuthorize("hasAuthority('SCOPE_read_user')")
     @PostMapping
@@ -145,6 +149,17 @@ public class ProjectEndpoint {
         return this.projectService.importProject(cppsProjectDto, principal);
     }
 
+    @PreAuthorize("hasAuthority('SCOPE_read_user')")
+    @PostMapping(value = "/import/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import projects from newline delimited JSON, one exported project per line", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<StreamingResponseBody> importProjects(HttpServletRequest request, Principal principal) {
+        log.info("Principal: {}", principal.getName());
+        log.info("POST /api/v1/project/import/bulk");
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(out -> this.projectImportService.importProjects(request.getInputStream(), out, principal));
+    }
+
     @PreAuthorize("hasAuthority('SCOPE_read_user')")
     @DeleteMapping("/{projectId}")
     @Operation(summary = "Deletes a project by id", security = @SecurityRequirement(name = "bearerAuth"))
@@ -176,6 +191,16 @@ public class ProjectEndpoint {
         return this.projectService.resetGitlabProject(projectId, principal);
     }
 
+    @PreAuthorize("hasAuthority('SCOPE_read_user')")
+    @PostMapping("/{projectId}/build")
+    @Operation(summary = "Build the complete Gitlab infrastructure, independent steps run concurrently", security = @SecurityRequirement(name = "bearerAuth"))
+    @ResponseStatus(HttpStatus.OK)
+    public BuildPipelineResponseDto buildGitlabInfrastructure(@PathVariable Long projectId, Principal principal) {
+        log.info("Principal: {}", principal.getName());
+        log.info("POST /api/v1/project/{}/build", projectId);
+        return this.projectService.buildGitlabInfrastructure(projectId, principal);
+    }
+
     @PreAuthorize("hasAuthority('SCOPE_read_user')")
     @PostMapping("/{projectId}/build/project")
     @Operation(summary = "Build Gitlab project)", security = @SecurityRequirement(name = "bearerAuth"))
@@ -306,6 +331,25 @@ public class ProjectEndpoint {
         return this.projectService.createDemoProject(demoProjectDto, principal);
     }
 
+    @PreAuthorize("hasAuthority('SCOPE_read_user')")
+    @GetMapping(value = "/{projectId}/repository_files/zip", produces = "application/zip")
+    @Operation(summary = "Download the generated repository files as a ZIP archive", security = @SecurityRequirement(name = "bearerAuth"))
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<StreamingResponseBody> downloadRepositoryFiles(@PathVariable Long projectId, Principal principal) {
+        log.info("Principal: {}", principal.getName());
+        log.info("GET /api/v1/project/{}/repository_files/zip", projectId);
+
+        GeneratedRepositoryDto repository = this.projectService.generateRepositoryFiles(projectId, principal);
+
+        // The archive is written entry by entry into the response, it is never held in memory or on disk as a whole
+        StreamingResponseBody body = out -> repository.getFiles().writeZipTo(out, repository.getName());
+
+        return ResponseEntity.ok()
+            .header("Content-Disposition", "attachment; filename=" + repository.getName() + ".zip")
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .body(body);
+    }
+
     @PreAuthorize("hasAuthority('SCOPE_read_user')")
     @PostMapping("/{projectId}/file_consistency_check")
     @Operation(summary = "Perform file consistency check", security = @SecurityRequirement(name = "bearerAuth"))
@@ -13,7 +13,7 @@ public class ExternalToolsData {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_external_tools_data")
-    @SequenceGenerator(name = "seq_external_tools_data", allocationSize = 5)
+    @SequenceGenerator(name = "seq_external_tools_data", allocationSize = 50)
     @EqualsAndHashCode.Include
     @Column(name = "id", updatable = false)
     private Long id;
@@ -13,7 +13,7 @@ public class GitlabPrIssueTemplate {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_gitlab_template")
-    @SequenceGenerator(name = "seq_gitlab_template", allocationSize = 5)
+    @SequenceGenerator(name = "seq_gitlab_template", allocationSize = 50)
     @EqualsAndHashCode.Exclude
     @Column(name = "id", updatable = false)
     private Long id;
@@ -27,7 +27,7 @@ public class GitlabPrIssueTemplate {
     @Column(name = "content", length = 10000)
     private String content;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
@@ -13,7 +13,7 @@ public class GitlabProject {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_gitlab_project")
-    @SequenceGenerator(name = "seq_gitlab_project", allocationSize = 5)
+    @SequenceGenerator(name = "seq_gitlab_project", allocationSize = 50)
     @EqualsAndHashCode.Exclude
     @Column(name = "id", updatable = false)
     private Long id;
@@ -21,7 +21,7 @@ public class GitlabProject {
     @Column(name = "gitlab_id")
     private Long gitlabId;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
@@ -13,7 +13,7 @@ public class GitlabSubgroup {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_gitlab_subgroup")
-    @SequenceGenerator(name = "seq_gitlab_subgroup", allocationSize = 5)
+    @SequenceGenerator(name = "seq_gitlab_subgroup", allocationSize = 50)
     @EqualsAndHashCode.Exclude
     @Column(name = "id", updatable = false)
     private Long id;
@@ -21,7 +21,7 @@ public class GitlabSubgroup {
     @Column(name = "gitlab_id")
     private Long gitlabId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workspace_id")
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
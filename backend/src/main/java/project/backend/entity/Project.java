@@ -6,20 +6,43 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.Set;
 
+/**
+ * All associations are fetched lazily, each use case loads what it navigates through one of the entity graphs below.
+ * The inverse one-to-one sides cannot be proxied, so every graph fetches them with the project to avoid a select per row.
+ * A graph joins at most one collection, joining sibling collections would return the product of their rows.
+ * Use cases navigating more collections load the others in batches, see {@link project.backend.repository.ProjectRepository}.
+ */
 @Entity
 @Table(name = "project")
+@NamedEntityGraph(name = Project.GRAPH_ACCESS, attributeNodes = {
+    @NamedAttributeNode("externalToolsData"),
+    @NamedAttributeNode("gitlabProject"),
+    @NamedAttributeNode(value = "projectUserAccesses", subgraph = "accessUser")
+}, subgraphs = {
+    @NamedSubgraph(name = "accessUser", attributeNodes = @NamedAttributeNode("user"))
+})
+@NamedEntityGraph(name = Project.GRAPH_GITLAB, attributeNodes = {
+    @NamedAttributeNode("externalToolsData"),
+    @NamedAttributeNode("gitlabProject")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
 
+    /** Access rights of the members, for permission checks. */
+    public static final String GRAPH_ACCESS = "Project.access";
+    /** GitLab ids of the project and its root group. */
+    public static final String GRAPH_GITLAB = "Project.gitlab";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_project")
-    @SequenceGenerator(name = "seq_project", allocationSize = 5)
+    @SequenceGenerator(name = "seq_project", allocationSize = 50)
     @EqualsAndHashCode.Include
     @Column(name = "id", updatable = false)
     private Long id;
@@ -36,23 +59,28 @@ public class Project {
     @Column(name = "is_demo", nullable = false)
     private Boolean isDemo;
 
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<ProjectUserAccess> projectUserAccesses;
 
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<WorkSpace> workSpaces;
 
-    @OneToOne(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private ExternalToolsData externalToolsData;
 
-    @OneToOne(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private GitlabProject gitlabProject;
 
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<GitlabPrIssueTemplate> gitlabPrIssueTemplates;
 }
@@ -3,6 +3,7 @@ package project.backend.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -22,19 +23,19 @@ public class ProjectUserAccess {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_project_user_access")
-    @SequenceGenerator(name = "seq_project_user_access", allocationSize = 5)
+    @SequenceGenerator(name = "seq_project_user_access", allocationSize = 50)
     @EqualsAndHashCode.Include
     @Column(name = "id", updatable = false)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @JsonIgnore
     private Project project;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
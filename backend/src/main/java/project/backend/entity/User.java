@@ -17,7 +17,7 @@ public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_users")
-    @SequenceGenerator(name = "seq_users", allocationSize = 5)
+    @SequenceGenerator(name = "seq_users", allocationSize = 50)
     @EqualsAndHashCode.Include
     @Column(name = "id", updatable = false)
     private Long id;
@@ -35,12 +35,13 @@ public class User {
     @Column(name = "avatarUrl", nullable = false)
     private String avatarUrl;
 
-    @OneToMany(mappedBy = "user", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user")
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<ProjectUserAccess> projectUserAccesses;
 
 
-    @ManyToMany(mappedBy = "users", fetch = FetchType.EAGER)
+    @ManyToMany(mappedBy = "users")
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     private Set<WorkSpace> workSpaces;
@@ -16,7 +16,7 @@ public class WorkSpace {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_workspace")
-    @SequenceGenerator(name = "seq_workspace", allocationSize = 5)
+    @SequenceGenerator(name = "seq_workspace", allocationSize = 50)
     @EqualsAndHashCode.Include
     @Column(name = "id", updatable = false)
     private Long id;
@@ -27,7 +27,7 @@ public class WorkSpace {
     @Column(name = "is_common", nullable = false)
     private Boolean isCommon;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @JoinTable(name = "user_workspace",
@@ -35,12 +35,14 @@ public class WorkSpace {
         inverseJoinColumns = @JoinColumn(name = "user_id"))
     private Set<User> users;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
+    @EqualsAndHashCode.Exclude
     @ToString.Exclude
     private Project project;
 
-    @OneToMany(mappedBy = "workspace", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "workspace", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<GitlabSubgroup> gitlabSubgroups;
 }
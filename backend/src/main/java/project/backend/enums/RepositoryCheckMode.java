@@ -0,0 +1,6 @@
+package project.backend.enums;
+
+public enum RepositoryCheckMode {
+    API,
+    CLONE
+}
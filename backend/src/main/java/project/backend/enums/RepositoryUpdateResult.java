@@ -0,0 +1,10 @@
+package project.backend.enums;
+
+public enum RepositoryUpdateResult {
+    UPDATED,
+    /**
+     * The repository already had the content, nothing was committed.
+     */
+    UNCHANGED,
+    FAILED
+}
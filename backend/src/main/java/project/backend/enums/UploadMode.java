@@ -0,0 +1,6 @@
+package project.backend.enums;
+
+public enum UploadMode {
+    GIT,
+    COMMIT_API
+}
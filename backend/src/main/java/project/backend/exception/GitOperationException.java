@@ -0,0 +1,13 @@
+package project.backend.exception;
+
+
+public class GitOperationException extends RuntimeException {
+
+    public GitOperationException(String message) {
+        super(message);
+    }
+
+    public GitOperationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package project.backend.filetree;
+
+/**
+ * Git file modes of the files in a {@link FileTree}.
+ */
+public enum FileMode {
+    REGULAR("100644"),
+    EXECUTABLE("100755");
+
+    private final String gitMode;
+
+    FileMode(String gitMode) {
+        this.gitMode = gitMode;
+    }
+
+    public String getGitMode() {
+        return gitMode;
+    }
+}
@@ -0,0 +1,102 @@
+package project.backend.filetree;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.Checksum;
+
+/**
+ * Immutable content of a single file in a {@link FileTree}.
+ * The git blob id is computed once on creation, so trees can be compared with each other and with a remote repository
+ * without looking at the content again.
+ */
+public final class FileNode {
+
+    private final byte[] content;
+    private final FileMode mode;
+    private final String blobId;
+
+    private FileNode(byte[] content, FileMode mode) {
+        this.content = content;
+        this.mode = mode;
+        this.blobId = computeBlobId(content);
+    }
+
+    public static FileNode of(String content) {
+        return new FileNode(content.getBytes(StandardCharsets.UTF_8), FileMode.REGULAR);
+    }
+
+    public static FileNode of(byte[] content) {
+        return of(content, FileMode.REGULAR);
+    }
+
+    public static FileNode of(byte[] content, FileMode mode) {
+        return new FileNode(content.clone(), mode);
+    }
+
+    /**
+     * Takes ownership of the array without copying it, the caller must not modify it afterwards.
+     */
+    static FileNode wrap(byte[] content, FileMode mode) {
+        return new FileNode(content, mode);
+    }
+
+    public FileMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the id git gives this content, the SHA-1 of {@code "blob <size>\0<content>"}.
+     */
+    public String getBlobId() {
+        return blobId;
+    }
+
+    public int size() {
+        return content.length;
+    }
+
+    /**
+     * Returns a copy of the content.
+     */
+    public byte[] toByteArray() {
+        return content.clone();
+    }
+
+    public String asString() {
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    public InputStream openStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(content);
+    }
+
+    void updateChecksum(Checksum checksum) {
+        checksum.update(content, 0, content.length);
+    }
+
+    @Override
+    public String toString() {
+        return "FileNode{" + blobId + ", " + mode.getGitMode() + ", " + content.length + " bytes}";
+    }
+
+    private static String computeBlobId(byte[] content) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            sha1.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            sha1.update(content);
+            return HexFormat.of().formatHex(sha1.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package project.backend.filetree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Immutable in-memory file tree of a repository, maps repository paths like {@code "libs/.gitkeep"} to file content.
+ * Directories are implicit, a directory exists as long as one file below it exists, exactly like in git.
+ * Paths are kept sorted, so iterating a tree always visits the files in the same order.
+ */
+public final class FileTree implements RepositoryIndex {
+
+    private static final FileTree EMPTY = new FileTree(new TreeMap<>());
+    private static final String GIT_DIRECTORY = ".git";
+
+    private final NavigableMap<String, FileNode> files;
+
+    private FileTree(TreeMap<String, FileNode> files) {
+        this.files = Collections.unmodifiableNavigableMap(files);
+    }
+
+    public static FileTree empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder(new TreeMap<>());
+    }
+
+    /**
+     * Reads all regular files below the directory. The ".git" directory of a clone is skipped.
+     */
+    public static FileTree read(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return EMPTY;
+        }
+
+        Path gitDirectory = directory.resolve(GIT_DIRECTORY);
+        List<Path> regularFiles;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            regularFiles = paths
+                .filter(path -> !path.startsWith(gitDirectory))
+                .filter(Files::isRegularFile)
+                .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Builder builder = builder();
+        for (Path file : regularFiles) {
+            FileMode mode = Files.isExecutable(file) ? FileMode.EXECUTABLE : FileMode.REGULAR;
+            builder.add(directory.relativize(file).toString().replace('\\', '/'), FileNode.wrap(Files.readAllBytes(file), mode));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the tree as a ZIP archive to the stream, file by file, with every file below the root directory.
+     * Already compressed files like jars are stored as they are instead of being compressed again.
+     * The stream is not closed, so the archive can be written directly into a response.
+     */
+    public void writeZipTo(OutputStream out, String rootDirectory) throws IOException {
+        String prefix = rootDirectory.isEmpty() || rootDirectory.endsWith("/") ? rootDirectory : rootDirectory + "/";
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (Map.Entry<String, FileNode> file : files.entrySet()) {
+            FileNode node = file.getValue();
+            ZipEntry entry = new ZipEntry(prefix + file.getKey());
+            if (isCompressed(file.getKey())) {
+                CRC32 crc = new CRC32();
+                node.updateChecksum(crc);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(node.size());
+                entry.setCompressedSize(node.size());
+                entry.setCrc(crc.getValue());
+            }
+            zip.putNextEntry(entry);
+            node.writeTo(zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private static boolean isCompressed(String path) {
+        return path.endsWith(".jar") || path.endsWith(".zip");
+    }
+
+    static void write(Path directory, String path, FileNode node) throws IOException {
+        Path target = directory.resolve(path);
+        Files.createDirectories(target.getParent());
+        try (var out = Files.newOutputStream(target)) {
+            node.writeTo(out);
+        }
+        if (node.getMode() == FileMode.EXECUTABLE) {
+            target.toFile().setExecutable(true);
+        }
+    }
+
+    public FileNode get(String path) {
+        return files.get(path);
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return files.containsKey(path);
+    }
+
+    @Override
+    public boolean containsDirectory(String path) {
+        return hasDescendant(files, path);
+    }
+
+    @Override
+    public String blobId(String path) {
+        FileNode node = files.get(path);
+        return node != null ? node.getBlobId() : null;
+    }
+
+    @Override
+    public NavigableSet<String> paths() {
+        return files.navigableKeySet();
+    }
+
+    /**
+     * Returns the files of the tree by path, sorted by path.
+     */
+    public NavigableMap<String, FileNode> files() {
+        return files;
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    public boolean isEmpty() {
+        return files.isEmpty();
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (FileNode node : files.values()) {
+            total += node.size();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "FileTree{" + files.size() + " files}";
+    }
+
+    private static boolean hasDescendant(NavigableMap<String, FileNode> files, String directory) {
+        String prefix = directory.endsWith("/") ? directory : directory + "/";
+        String next = files.ceilingKey(prefix);
+        return next != null && next.startsWith(prefix);
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        if (normalized.isEmpty() || normalized.endsWith("/")) {
+            throw new IllegalArgumentException("Not a file path: " + path);
+        }
+        for (String segment : normalized.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                throw new IllegalArgumentException("Not a file path: " + path);
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Mutable builder of a {@link FileTree}, not thread safe. Adding a path that already exists replaces its content.
+     */
+    public static final class Builder {
+
+        private final TreeMap<String, FileNode> files;
+
+        private Builder(TreeMap<String, FileNode> files) {
+            this.files = files;
+        }
+
+        public Builder add(String path, FileNode node) {
+            files.put(normalize(path), node);
+            return this;
+        }
+
+        public Builder add(String path, String content) {
+            return add(path, FileNode.of(content));
+        }
+
+        public Builder add(String path, byte[] content) {
+            return add(path, FileNode.of(content));
+        }
+
+        public boolean contains(String path) {
+            return files.containsKey(normalize(path));
+        }
+
+        public boolean containsDirectory(String path) {
+            return hasDescendant(files, normalize(path));
+        }
+
+        public FileTree build() {
+            return files.isEmpty() ? EMPTY : new FileTree(new TreeMap<>(files));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package project.backend.filetree;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+
+/**
+ * Immutable listing of the files of a remote repository as returned by the GitLab repository tree API.
+ * Holds the blob id of every file but no content, single blobs can be fetched by id where the content matters.
+ */
+public final class RemoteTree implements RepositoryIndex {
+
+    private static final RemoteTree EMPTY = new RemoteTree(new TreeMap<>());
+
+    private final NavigableMap<String, String> blobIds;
+
+    private RemoteTree(TreeMap<String, String> blobIds) {
+        this.blobIds = Collections.unmodifiableNavigableMap(blobIds);
+    }
+
+    public static RemoteTree empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a listing from blob ids by repository path.
+     */
+    public static RemoteTree of(Map<String, String> blobIds) {
+        return blobIds.isEmpty() ? EMPTY : new RemoteTree(new TreeMap<>(blobIds));
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return blobIds.containsKey(path);
+    }
+
+    @Override
+    public boolean containsDirectory(String path) {
+        String prefix = path.endsWith("/") ? path : path + "/";
+        String next = blobIds.ceilingKey(prefix);
+        return next != null && next.startsWith(prefix);
+    }
+
+    @Override
+    public String blobId(String path) {
+        return blobIds.get(path);
+    }
+
+    @Override
+    public NavigableSet<String> paths() {
+        return blobIds.navigableKeySet();
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteTree{" + blobIds.size() + " files}";
+    }
+}
@@ -0,0 +1,125 @@
+package project.backend.filetree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable difference between the files of a repository and the files it should contain, computed from git blob ids
+ * alone. Files with the same blob id are unchanged and never written, read or sent again.
+ */
+public final class RepositoryChangeSet {
+
+    private final NavigableMap<String, FileNode> added;
+    private final NavigableMap<String, FileNode> modified;
+    private final NavigableSet<String> deleted;
+
+    private RepositoryChangeSet(TreeMap<String, FileNode> added, TreeMap<String, FileNode> modified, TreeSet<String> deleted) {
+        this.added = Collections.unmodifiableNavigableMap(added);
+        this.modified = Collections.unmodifiableNavigableMap(modified);
+        this.deleted = Collections.unmodifiableNavigableSet(deleted);
+    }
+
+    /**
+     * Changes that turn the current repository into exactly the target tree, files missing from the target are deleted.
+     */
+    public static RepositoryChangeSet between(RepositoryIndex current, FileTree target) {
+        return compute(current, target, current.paths());
+    }
+
+    /**
+     * Changes that write the given files into the current repository and replace the content of the given directories,
+     * files below them that are not part of the given files are deleted. Everything else is left as it is.
+     */
+    public static RepositoryChangeSet of(RepositoryIndex current, FileTree files, Collection<String> replacedDirectories) {
+        TreeSet<String> replaced = new TreeSet<>();
+        for (String directory : replacedDirectories) {
+            String prefix = directory.endsWith("/") ? directory : directory + "/";
+            replaced.addAll(current.paths().subSet(prefix, true, prefix + Character.MAX_VALUE, false));
+        }
+        return compute(current, files, replaced);
+    }
+
+    private static RepositoryChangeSet compute(RepositoryIndex current, FileTree files, Collection<String> deletionCandidates) {
+        TreeMap<String, FileNode> added = new TreeMap<>();
+        TreeMap<String, FileNode> modified = new TreeMap<>();
+        for (Map.Entry<String, FileNode> file : files.files().entrySet()) {
+            String currentBlobId = current.blobId(file.getKey());
+            if (currentBlobId == null) {
+                added.put(file.getKey(), file.getValue());
+            } else if (!currentBlobId.equals(file.getValue().getBlobId())) {
+                modified.put(file.getKey(), file.getValue());
+            }
+        }
+
+        TreeSet<String> deleted = new TreeSet<>();
+        for (String path : deletionCandidates) {
+            if (!files.contains(path)) {
+                deleted.add(path);
+            }
+        }
+
+        return new RepositoryChangeSet(added, modified, deleted);
+    }
+
+    public NavigableMap<String, FileNode> added() {
+        return added;
+    }
+
+    public NavigableMap<String, FileNode> modified() {
+        return modified;
+    }
+
+    public NavigableSet<String> deleted() {
+        return deleted;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && modified.isEmpty() && deleted.isEmpty();
+    }
+
+    public int size() {
+        return added.size() + modified.size() + deleted.size();
+    }
+
+    /**
+     * Returns the size of the content that has to be written.
+     */
+    public long totalBytes() {
+        long total = 0;
+        for (FileNode node : added.values()) {
+            total += node.size();
+        }
+        for (FileNode node : modified.values()) {
+            total += node.size();
+        }
+        return total;
+    }
+
+    /**
+     * Applies the changes to a working directory holding the current repository, touching only the changed files.
+     */
+    public void writeTo(Path directory) throws IOException {
+        for (String path : deleted) {
+            Files.deleteIfExists(directory.resolve(path));
+        }
+        for (Map.Entry<String, FileNode> file : added.entrySet()) {
+            FileTree.write(directory, file.getKey(), file.getValue());
+        }
+        for (Map.Entry<String, FileNode> file : modified.entrySet()) {
+            FileTree.write(directory, file.getKey(), file.getValue());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RepositoryChangeSet{" + added.size() + " added, " + modified.size() + " modified, " + deleted.size() + " deleted}";
+    }
+}
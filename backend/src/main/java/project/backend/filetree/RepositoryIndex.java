@@ -0,0 +1,26 @@
+package project.backend.filetree;
+
+import java.util.NavigableSet;
+
+/**
+ * Paths and git blob ids of the files of a repository, whether the content is at hand or not.
+ */
+public interface RepositoryIndex {
+
+    boolean contains(String path);
+
+    /**
+     * Returns whether at least one file exists below the directory.
+     */
+    boolean containsDirectory(String path);
+
+    /**
+     * Returns the git blob id of the file, null if the file does not exist.
+     */
+    String blobId(String path);
+
+    /**
+     * Returns the paths of all files, sorted.
+     */
+    NavigableSet<String> paths();
+}
@@ -3,6 +3,7 @@ package project.backend.mapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 import project.backend.dto.*;
 import project.backend.entity.*;
@@ -28,6 +29,10 @@ public class ProjectMapper {
 
     @Transactional
     public Project mapDtoToEntityForCreationAndPersist(CppsProjectDto projectDto) {
+        Map<Long, User> users = findUsersById(collectUserIds(projectDto));
+        // Looked up before the first save, a query later on would flush the half built project
+        final Map<Long, WorkSpace> existingWorkspaces = findWorkspacesById(projectDto);
+
         Project project = new Project();
 
         // Set project details
@@ -53,7 +58,7 @@ public class ProjectMapper {
 
         // Map users to ProjectUserAccess entities
         for (ProjectUserDto userDto : projectDto.getUsers()) {
-            User user = userRepository.findById(userDto.getUser().getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            User user = resolveUser(users, userDto.getUser().getId());
 
             ProjectUserAccess projectUserAccess = new ProjectUserAccess();
             projectUserAccess.setUser(user);
@@ -61,26 +66,26 @@ public class ProjectMapper {
             projectUserAccess.setIsAdmin(userDto.isAdmin());
             projectUserAccess.setProject(project);
 
-            projectUserAccesses.add(projectUserAccess); // Do not save yet
-
+            // Persist before adding, accesses with the same flags are equal until they have an id
             projectUserAccessRepository.save(projectUserAccess);
+
+            projectUserAccesses.add(projectUserAccess);
         }
 
         project.setProjectUserAccesses(projectUserAccesses);
 
         // Handle the common workspace
-        WorkSpace commonWorkspace = workSpaceRepository.findById(projectDto.getCommonWorkspace().getId())
-            .orElse(new WorkSpace());
-        commonWorkspace.setId(projectDto.getCommonWorkspace().getId());
+        WorkSpace commonWorkspace = existingWorkspaces.getOrDefault(projectDto.getCommonWorkspace().getId(), new WorkSpace());
         commonWorkspace.setName(projectDto.getCommonWorkspace().getName());
         commonWorkspace.setIsCommon(true);
         commonWorkspace.setProject(project);
+        workSpaceRepository.save(commonWorkspace);
 
         Set<User> commonWorkspaceUsers = new HashSet<>();
 
         // Set users for the common workspace
         for (UserDto userDto : projectDto.getCommonWorkspace().getUsers()) {
-            User user = userRepository.findById(userDto.getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            User user = resolveUser(users, userDto.getId());
             commonWorkspaceUsers.add(user);
         }
 
@@ -92,19 +97,18 @@ public class ProjectMapper {
 
         // Map and create domain workspaces
         for (DomainWorkspaceDto domainWorkspaceDto : projectDto.getDomainWorkspaces()) {
-            WorkSpace domainWorkspace = workSpaceRepository.findById(domainWorkspaceDto.getId())
-                .orElse(new WorkSpace());  // Fetch or create new WorkSpace
+            WorkSpace domainWorkspace = existingWorkspaces.getOrDefault(domainWorkspaceDto.getId(), new WorkSpace());  // Fetch or create new WorkSpace
 
-            domainWorkspace.setId(domainWorkspaceDto.getId());
             domainWorkspace.setName(domainWorkspaceDto.getName());
             domainWorkspace.setIsCommon(false);
             domainWorkspace.setProject(project);
+            workSpaceRepository.save(domainWorkspace);
 
             // Set users for the domain workspace
             Set<User> domainWorkspaceUsers = new HashSet<>();
 
             for (UserDto userDto : domainWorkspaceDto.getUsers()) {
-                User user = userRepository.findById(userDto.getId()).orElseThrow(() -> new RuntimeException("User not found"));
+                User user = resolveUser(users, userDto.getId());
                 domainWorkspaceUsers.add(user);
             }
             domainWorkspace.setUsers(domainWorkspaceUsers);
@@ -145,9 +149,12 @@ public class ProjectMapper {
 
         projectRepository.save(project);
 
+        // Keep the inverse side in sync only where it is loaded already, loading it would cost a query per user
         for (WorkSpace workspace: project.getWorkSpaces()) {
             for (User user: workspace.getUsers()) {
-                user.getWorkSpaces().add(workspace);
+                if (Hibernate.isInitialized(user.getWorkSpaces())) {
+                    user.getWorkSpaces().add(workspace);
+                }
             }
         }
 
@@ -158,6 +165,13 @@ public class ProjectMapper {
 
     @Transactional
     public Project mapDtoToEntityForCreationAndPersistDemoProject(DemoProjectDto projectDto, Long principalId) {
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(principalId);
+        for (ProjectUserDto userDto : projectDto.getCppsProject().getUsers()) {
+            userIds.add(userDto.getUser().getId());
+        }
+        Map<Long, User> users = findUsersById(userIds);
+
         Project project = new Project();
 
         // Set project details
@@ -183,7 +197,7 @@ public class ProjectMapper {
 
         // Map users to ProjectUserAccess entities
         for (ProjectUserDto userDto : projectDto.getCppsProject().getUsers()) {
-            User user = userRepository.findById(userDto.getUser().getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            User user = resolveUser(users, userDto.getUser().getId());
 
             ProjectUserAccess projectUserAccess = new ProjectUserAccess();
             projectUserAccess.setUser(user);
@@ -191,9 +205,10 @@ public class ProjectMapper {
             projectUserAccess.setIsAdmin(userDto.isAdmin());
             projectUserAccess.setProject(project);
 
-            projectUserAccesses.add(projectUserAccess); // Do not save yet
-
+            // Persist before adding, accesses with the same flags are equal until they have an id
             projectUserAccessRepository.save(projectUserAccess);
+
+            projectUserAccesses.add(projectUserAccess);
         }
 
         project.setProjectUserAccesses(projectUserAccesses);
@@ -207,7 +222,7 @@ public class ProjectMapper {
         Set<User> commonWorkspaceUsers = new HashSet<>();
         // Set all users as common workspace users
         for (ProjectUserDto userDto : projectDto.getCppsProject().getUsers()) {
-            User user = userRepository.findById(userDto.getUser().getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            User user = resolveUser(users, userDto.getUser().getId());
             commonWorkspaceUsers.add(user);
         }
         commonWorkspace.setUsers(commonWorkspaceUsers);
@@ -226,14 +241,14 @@ public class ProjectMapper {
             // Set users for the domain workspace
             Set<User> domainWorkspaceUsers = new HashSet<>();
             // Set principal as the only user for the domain workspace
-            User principal = userRepository.findById(principalId).orElseThrow(() -> new RuntimeException("User not found"));
+            User principal = resolveUser(users, principalId);
             domainWorkspaceUsers.add(principal);
 
             // Add other random subset of users to the domain workspace
-            List<ProjectUserDto> users = projectDto.getCppsProject().getUsers();
-            Collections.shuffle(users);
-            for (int j = 0; j < users.size() / 2; j++) {
-                User user = userRepository.findById(users.get(j).getUser().getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            List<ProjectUserDto> projectUsers = projectDto.getCppsProject().getUsers();
+            Collections.shuffle(projectUsers);
+            for (int j = 0; j < projectUsers.size() / 2; j++) {
+                User user = resolveUser(users, projectUsers.get(j).getUser().getId());
                 // Check if not principal
                 if (!Objects.equals(user.getId(), principalId)) {
                     domainWorkspaceUsers.add(user);
@@ -278,9 +293,12 @@ public class ProjectMapper {
 
         projectRepository.save(project);
 
+        // Keep the inverse side in sync only where it is loaded already, loading it would cost a query per user
         for (WorkSpace workspace: project.getWorkSpaces()) {
             for (User user: workspace.getUsers()) {
-                user.getWorkSpaces().add(workspace);
+                if (Hibernate.isInitialized(user.getWorkSpaces())) {
+                    user.getWorkSpaces().add(workspace);
+                }
             }
         }
 
@@ -289,6 +307,65 @@ public class ProjectMapper {
         return project;
     }
 
+    /**
+     * Collects the ids of all users the project and its workspaces refer to.
+     */
+    private static Set<Long> collectUserIds(CppsProjectDto projectDto) {
+        Set<Long> userIds = new HashSet<>();
+        for (ProjectUserDto userDto : projectDto.getUsers()) {
+            userIds.add(userDto.getUser().getId());
+        }
+        for (UserDto userDto : projectDto.getCommonWorkspace().getUsers()) {
+            userIds.add(userDto.getId());
+        }
+        for (DomainWorkspaceDto domainWorkspaceDto : projectDto.getDomainWorkspaces()) {
+            for (UserDto userDto : domainWorkspaceDto.getUsers()) {
+                userIds.add(userDto.getId());
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Loads the users with a single query, the workspaces then take their users from the map.
+     */
+    private Map<Long, User> findUsersById(Set<Long> userIds) {
+        userIds.remove(null);
+
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+        return users;
+    }
+
+    /**
+     * Loads the workspaces the DTO refers to by id with a single query. New workspaces carry placeholder ids
+     * the database does not know, they are missing from the map.
+     */
+    private Map<Long, WorkSpace> findWorkspacesById(CppsProjectDto projectDto) {
+        Set<Long> workspaceIds = new HashSet<>();
+        workspaceIds.add(projectDto.getCommonWorkspace().getId());
+        for (DomainWorkspaceDto domainWorkspaceDto : projectDto.getDomainWorkspaces()) {
+            workspaceIds.add(domainWorkspaceDto.getId());
+        }
+        workspaceIds.remove(null);
+
+        Map<Long, WorkSpace> workspaces = new HashMap<>();
+        for (WorkSpace workspace : workSpaceRepository.findAllById(workspaceIds)) {
+            workspaces.put(workspace.getId(), workspace);
+        }
+        return workspaces;
+    }
+
+    private static User resolveUser(Map<Long, User> users, Long userId) {
+        User user = users.get(userId);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
+    }
+
     public CppsProjectDto mapEntityToProjectDto(Project project) {
         CppsProjectDto cppsProjectDto = new CppsProjectDto();
 
@@ -397,24 +474,24 @@ public class ProjectMapper {
         return cppsProjectDto;
     }
 
-    public CppsProjectListItemDto mapProjectUserAccessEntityToProjectListItemDto(ProjectUserAccess projectUserAccess) {
+    public CppsProjectListItemDto mapProjectListItemViewToProjectListItemDto(ProjectListItemView projectListItem) {
         CppsProjectListItemDto cppsProjectListItemDto = new CppsProjectListItemDto();
-        cppsProjectListItemDto.setDemo(projectUserAccess.getProject().getIsDemo());
+        cppsProjectListItemDto.setDemo(projectListItem.getDemo());
 
-        cppsProjectListItemDto.setId(projectUserAccess.getProject().getId());
+        cppsProjectListItemDto.setId(projectListItem.getId());
 
         ProjectDetailsDto projectDetailsDto = new ProjectDetailsDto();
-        projectDetailsDto.setName(projectUserAccess.getProject().getName());
-        projectDetailsDto.setDescription(projectUserAccess.getProject().getDescription());
-        projectDetailsDto.setVersion(projectUserAccess.getProject().getVersion());
-        projectDetailsDto.setDemo(projectUserAccess.getProject().getIsDemo());
+        projectDetailsDto.setName(projectListItem.getName());
+        projectDetailsDto.setDescription(projectListItem.getDescription());
+        projectDetailsDto.setVersion(projectListItem.getVersion());
+        projectDetailsDto.setDemo(projectListItem.getDemo());
 
         cppsProjectListItemDto.setDetails(projectDetailsDto);
 
-        cppsProjectListItemDto.setUserCount((long) projectUserAccess.getProject().getProjectUserAccesses().size());
-        cppsProjectListItemDto.setWorkspaceCount((long) projectUserAccess.getProject().getWorkSpaces().size());
+        cppsProjectListItemDto.setUserCount(projectListItem.getUserCount());
+        cppsProjectListItemDto.setWorkspaceCount(projectListItem.getWorkspaceCount());
 
-        cppsProjectListItemDto.setHasAdmin(projectUserAccess.getIsAdmin());
+        cppsProjectListItemDto.setHasAdmin(projectListItem.getAdmin());
 
         return cppsProjectListItemDto;
     }
@@ -524,6 +601,8 @@ public class ProjectMapper {
 
     @Transactional
     public Project mapDtoToEntityForUpdateAndPersist(CppsProjectDto projectDto, Project project) {
+        Map<Long, User> users = findUsersById(collectUserIds(projectDto));
+
         // Update project details - the name can't be updated
         project.setDescription(projectDto.getDetails().getDescription());
         project.setVersion(projectDto.getDetails().getVersion());
@@ -538,7 +617,7 @@ public class ProjectMapper {
         Set<ProjectUserAccess> currentProjectUserAccesses = project.getProjectUserAccesses();
 
         for (ProjectUserDto userDto : projectDto.getUsers()) {
-            User user = userRepository.findById(userDto.getUser().getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            User user = resolveUser(users, userDto.getUser().getId());
 
             ProjectUserAccess projectUserAccess = currentProjectUserAccesses.stream()
                 .filter(access -> access.getUser().getId().equals(user.getId()))
@@ -571,7 +650,7 @@ public class ProjectMapper {
         Set<User> commonWorkspaceUsers = new HashSet<>();
 
         for (UserDto userDto : projectDto.getCommonWorkspace().getUsers()) {
-            User user = userRepository.findById(userDto.getId()).orElseThrow(() -> new RuntimeException("User not found"));
+            User user = resolveUser(users, userDto.getId());
             commonWorkspaceUsers.add(user);
         }
 
@@ -594,7 +673,7 @@ public class ProjectMapper {
             Set<User> domainWorkspaceUsers = new HashSet<>();
 
             for (UserDto userDto : domainWorkspaceDto.getUsers()) {
-                User user = userRepository.findById(userDto.getId()).orElseThrow(() -> new RuntimeException("User not found"));
+                User user = resolveUser(users, userDto.getId());
                 domainWorkspaceUsers.add(user);
             }
 
@@ -0,0 +1,24 @@
+package project.backend.repository;
+
+/**
+ * One row of the project list of a user, read in a single query. The counts are computed by the database,
+ * the accesses and workspaces of the listed projects are never loaded.
+ */
+public interface ProjectListItemView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getVersion();
+
+    Boolean getDemo();
+
+    Boolean getAdmin();
+
+    Long getUserCount();
+
+    Long getWorkspaceCount();
+}
@@ -1,10 +1,79 @@
 package project.backend.repository;
 
+import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import project.backend.entity.ExampleEntity;
 import project.backend.entity.Project;
 
+import java.util.Optional;
+
+/**
+ * The associations of {@link Project} are lazy, use the finder matching what the caller navigates
+ * instead of {@link #findById} whenever the project leaves the repository call.
+ * The entity graphs join one collection, the finders navigating more initialize the others within the same transaction.
+ * Those are loaded in batches for all workspaces at once, so the number of statements does not grow with the project.
+ */
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    @EntityGraph(Project.GRAPH_ACCESS)
+    Optional<Project> findWithAccessesById(Long id);
+
+    @EntityGraph(Project.GRAPH_GITLAB)
+    Optional<Project> findWithGitlabDataById(Long id);
+
+    /**
+     * The project with its workspaces and their GitLab subgroups, for creating and resetting the subgroups.
+     */
+    @Transactional
+    default Optional<Project> findWithWorkspacesById(Long id) {
+        Optional<Project> project = findWithGitlabDataById(id);
+        project.ifPresent(found -> found.getWorkSpaces().forEach(workSpace -> Hibernate.initialize(workSpace.getGitlabSubgroups())));
+        return project;
+    }
+
+    /**
+     * The members of the project and its workspaces, for synchronising the GitLab memberships.
+     */
+    @Transactional
+    default Optional<Project> findWithMembersById(Long id) {
+        Optional<Project> project = findWithAccessesById(id);
+        project.ifPresent(found -> found.getWorkSpaces().forEach(workSpace -> {
+            Hibernate.initialize(workSpace.getUsers());
+            Hibernate.initialize(workSpace.getGitlabSubgroups());
+        }));
+        return project;
+    }
+
+    /**
+     * Everything the detail view shows.
+     */
+    @Transactional
+    default Optional<Project> findDetailById(Long id) {
+        Optional<Project> project = findWithAccessesById(id);
+        project.ifPresent(found -> {
+            Hibernate.initialize(found.getGitlabPrIssueTemplates());
+            found.getWorkSpaces().forEach(workSpace -> Hibernate.initialize(workSpace.getUsers()));
+        });
+        return project;
+    }
+
+    /**
+     * The whole project, for exports and for generating the repository content.
+     */
+    @Transactional
+    default Optional<Project> findForExportById(Long id) {
+        Optional<Project> project = findWithAccessesById(id);
+        project.ifPresent(found -> {
+            Hibernate.initialize(found.getGitlabPrIssueTemplates());
+            found.getWorkSpaces().forEach(workSpace -> {
+                Hibernate.initialize(workSpace.getUsers());
+                Hibernate.initialize(workSpace.getGitlabSubgroups());
+            });
+        });
+        return project;
+    }
 }
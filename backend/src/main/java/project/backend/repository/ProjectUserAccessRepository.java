@@ -16,6 +16,13 @@ public interface ProjectUserAccessRepository extends JpaRepository<ProjectUserAc
     @Query("SELECT pua FROM ProjectUserAccess pua WHERE pua.user.id = :userId")
     List<ProjectUserAccess> findByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.version AS version, p.isDemo AS demo, "
+        + "pua.isAdmin AS admin, "
+        + "(SELECT COUNT(a) FROM ProjectUserAccess a WHERE a.project = p) AS userCount, "
+        + "(SELECT COUNT(w) FROM WorkSpace w WHERE w.project = p) AS workspaceCount "
+        + "FROM ProjectUserAccess pua JOIN pua.project p WHERE pua.user.id = :userId ORDER BY p.id")
+    List<ProjectListItemView> findProjectListByUserId(@Param("userId") Long userId);
+
     @Query("SELECT pua FROM ProjectUserAccess pua WHERE pua.project.id = :projectId AND pua.user.id = :userId")
     ProjectUserAccess findByProjectIdAndUserId(@Param("projectId") Long projectId, @Param("userId") Long userId);
 
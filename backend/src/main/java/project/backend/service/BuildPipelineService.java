@@ -0,0 +1,16 @@
+package project.backend.service;
+
+import project.backend.dto.BuildPipelineResponseDto;
+
+public interface BuildPipelineService {
+
+    /**
+     * Builds the complete GitLab infrastructure of a project in one go. The build steps form a dependency graph,
+     * steps run as soon as all steps they depend on succeeded, and steps whose dependencies failed are skipped.
+     *
+     * @param projectId the project to build
+     * @param userId the id of the user building the project
+     * @return the overall outcome and the result of every step, in pipeline order
+     */
+    BuildPipelineResponseDto buildGitlabInfrastructure(Long projectId, long userId);
+}
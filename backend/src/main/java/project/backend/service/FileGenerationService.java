@@ -1,14 +1,30 @@
 package project.backend.service;
 
 import project.backend.entity.Project;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RepositoryChangeSet;
+import project.backend.filetree.RepositoryIndex;
 
 import java.util.List;
 
 public interface FileGenerationService {
 
-    String generateFileStructure(Project project);
+    /**
+     * Generates the initial repository content of the project, without touching the disk.
+     */
+    FileTree generateFileTree(Project project);
 
-    String updateFileStructure(Project project, long userId);
+    /**
+     * Computes the changes that bring an existing repository in line with the current project data.
+     * Templates and the config file are regenerated and missing domain workspaces are added, everything else is kept.
+     * Only files whose blob id differs end up in the change set, it is empty when the repository is up to date.
+     */
+    RepositoryChangeSet planRepositoryUpdate(RepositoryIndex repository, Project project);
+
+    /**
+     * Lists the differences between the content of a repository and what the project data expects.
+     */
+    List<String> checkFileTree(FileTree repository, Project project);
 
     List<String> performFileStructureCheck(Project project, long userId);
 }
@@ -0,0 +1,59 @@
+package project.backend.service;
+
+import project.backend.dto.GitlabGroupListItemDto;
+import project.backend.enums.RepositoryUpdateResult;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RemoteTree;
+import project.backend.filetree.RepositoryChangeSet;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of the {@link GitlabService} operations. The returned Monos are cold, so build steps can be
+ * composed and run concurrently before anything is sent to GitLab.
+ */
+public interface GitlabAsyncService {
+
+    Mono<List<GitlabGroupListItemDto>> getAllUserGroups(long userId);
+
+    Mono<Boolean> createGitlabProject(Long projectId, long userId);
+
+    Mono<Boolean> createGitlabSubgroups(Long projectId, long userId);
+
+    Mono<Boolean> addGitlabProjectUsers(Long projectId, long userId);
+
+    Mono<Boolean> addGitlabSubgroupsUsers(Long projectId, long userId);
+
+    Mono<Boolean> addGitlabDeployKey(Long projectId, long userId);
+
+    Mono<Boolean> resetGitlabProject(Long projectId, long userId);
+
+    Mono<String> getGitlabUrl(Long groupId, long userId);
+
+    Mono<Boolean> uploadRepositoryFiles(Long projectId, FileTree files, long userId);
+
+    /**
+     * Applies the changes to the default branch of the project repository, an empty change set pushes nothing.
+     */
+    Mono<RepositoryUpdateResult> updateRepositoryFiles(Long projectId, RepositoryChangeSet changes, long userId);
+
+    /**
+     * Lists the files of the default branch of the project repository with their blob ids, empty for an empty repository.
+     */
+    Mono<RemoteTree> getRepositoryTree(Long projectId, long userId);
+
+    Mono<byte[]> getRepositoryBlob(Long projectId, String blobId, long userId);
+
+    Mono<Boolean> createGitlabProjectLabels(Long projectId, long userId);
+
+    Mono<Boolean> createOnlyNewGitlabSubgroups(Long projectId, long userId);
+
+    Mono<Boolean> editGitlabProjectUsers(Long projectId, long userId);
+
+    Mono<Boolean> editGitlabSubgroupsUsers(Long projectId, long userId);
+
+    Mono<String> getRootGroupUrl(Long projectId, long userId);
+
+    Mono<String> getProjectUrl(Long projectId, long userId);
+}
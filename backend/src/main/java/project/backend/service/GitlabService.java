@@ -2,6 +2,10 @@ package project.backend.service;
 
 import org.springframework.http.HttpEntity;
 import project.backend.dto.GitlabGroupListItemDto;
+import project.backend.enums.RepositoryUpdateResult;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RemoteTree;
+import project.backend.filetree.RepositoryChangeSet;
 
 import java.security.Principal;
 import java.util.List;
@@ -24,9 +28,13 @@ public interface GitlabService {
 
     String getGitlabUrl(Long projectId, long userId);
 
-    boolean uploadRepositoryFiles(Long projectId, String tempDirName, long userId);
+    boolean uploadRepositoryFiles(Long projectId, FileTree files, long userId);
 
-    boolean updateRepositoryFiles(Long projectId, String tempDirName, long userId);
+    RepositoryUpdateResult updateRepositoryFiles(Long projectId, RepositoryChangeSet changes, long userId);
+
+    RemoteTree getRepositoryTree(Long projectId, long userId);
+
+    byte[] getRepositoryBlob(Long projectId, String blobId, long userId);
 
     boolean createGitlabProjectLabels(Long projectId, long userId);
 
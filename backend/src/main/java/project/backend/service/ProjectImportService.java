@@ -0,0 +1,16 @@
+package project.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.Principal;
+
+public interface ProjectImportService {
+
+    /**
+     * Imports newline delimited project exports, one {@link project.backend.dto.CppsProjectJSONExportDto} per line.
+     * The documents are read one after the other and a {@link project.backend.dto.ProjectImportResultDto} line is
+     * written for each of them once its batch is persisted, so neither side has to hold the whole import in memory.
+     */
+    void importProjects(InputStream in, OutputStream out, Principal principal) throws IOException;
+}
@@ -25,6 +25,8 @@ public interface ProjectService {
 
     CppsProjectDto updateProject(Long projectId, CppsProjectDto projectDto, Principal principal);
 
+    BuildPipelineResponseDto buildGitlabInfrastructure(Long projectId, Principal principal);
+
     BuildResponseDto buildGitlabProject(Long projectId, Principal principal);
 
     BuildResponseDto buildGitlabSubgroups(Long projectId, Principal principal);
@@ -53,5 +55,15 @@ public interface ProjectService {
 
     CppsProjectDto importProject(CppsProjectJSONExportDto projectDto, Principal principal);
 
+    /**
+     * Imports a project like {@link #importProject} for callers that already validated the document.
+     */
+    CppsProjectDto importValidatedProject(CppsProjectJSONExportDto projectDto, Principal principal);
+
     BuildResponseDto performFileConsistencyCheck(Long projectId, Principal principal);
+
+    /**
+     * Generates the repository content of the project the way a build would, without touching GitLab.
+     */
+    GeneratedRepositoryDto generateRepositoryFiles(Long projectId, Principal principal);
 }
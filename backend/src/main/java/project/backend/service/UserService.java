@@ -25,5 +25,11 @@ public interface UserService {
 
     boolean checkForNonExpiredToken(long userId);
 
+    /**
+     * Returns a non-expired GitLab access token for the given user, refreshing it first if necessary.
+     * Tokens are served from an in-memory cache, so the user entity is only loaded on a cache miss.
+     */
+    String getValidAccessToken(long userId);
+
     List<UserDto> getMatchingUsers(String usernameSubStr, long requesterId);
 }
@@ -1,18 +1,17 @@
 package project.backend.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import project.backend.client.dto.GitlabTokenResponse;
+import project.backend.client.dto.GitlabUserResponse;
 import project.backend.entity.User;
 import project.backend.service.AuthService;
 import project.backend.service.UserService;
@@ -37,7 +36,7 @@ public class AuthServiceImpl implements AuthService {
     @Value("${spring.security.oauth2.client.provider.gitlab.user-info-uri}")
     private String userInfoURI;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
     private final UserService userService;
 
@@ -55,30 +54,19 @@ public class AuthServiceImpl implements AuthService {
 
         HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(parameters, headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(tokenURI, HttpMethod.POST, requestEntity, String.class);
+        GitlabTokenResponse response = restTemplate.exchange(tokenURI, HttpMethod.POST, requestEntity, GitlabTokenResponse.class).getBody();
+        log.info("Response: {}", response);
 
-        String jsonResponse = responseEntity.getBody();
-        log.info("Response: {}", jsonResponse);
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        String accessToken = null;
-        String refreshToken = null;
-        Integer expirationTime = null;
-
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
-            accessToken = jsonNode.get("access_token").asText();
-            refreshToken = jsonNode.get("refresh_token").asText();
-            expirationTime = jsonNode.get("created_at").asInt() + jsonNode.get("expires_in").asInt();
-        } catch (Exception e) {
-            log.error("Error parsing JSON response", e);
+        if (response == null || response.accessToken() == null) {
+            log.error("Unexpected response when exchanging the authorization code");
+            response = new GitlabTokenResponse(null, null, null, null);
         }
 
-        log.info("Access token: {}", accessToken);
+        log.info("Access token: {}", response.accessToken());
 
-        Long userId = generateUserFromAccessToken(accessToken);
+        Long userId = generateUserFromAccessToken(response.accessToken());
 
-        userService.updateGitlabAuthData(userId, accessToken, refreshToken, expirationTime);
+        userService.updateGitlabAuthData(userId, response.accessToken(), response.refreshToken(), response.expirationTime());
 
         return userId;
     }
@@ -89,28 +77,13 @@ public class AuthServiceImpl implements AuthService {
 
         HttpEntity<String> requestEntity = new HttpEntity<>(headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(userInfoURI, HttpMethod.GET, requestEntity, String.class);
-
-        String jsonResponse = responseEntity.getBody();
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        long id = -1L;
-        String avatarUrl = null;
-        String username = null;
-        String email = null;
-
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
-            id = jsonNode.get("id").asLong();
-            avatarUrl = jsonNode.get("avatar_url").asText();
-            username = jsonNode.get("username").asText();
-            email = jsonNode.get("email").asText();
+        GitlabUserResponse response = restTemplate.exchange(userInfoURI, HttpMethod.GET, requestEntity, GitlabUserResponse.class).getBody();
 
-        } catch (Exception e) {
-            log.error("Error parsing JSON response", e);
+        if (response == null || response.id() == null) {
+            log.error("Unexpected response when fetching the Gitlab user info");
             return -1L;
         }
 
-        return userService.create_or_return_user(id, username, email, avatarUrl);
+        return userService.create_or_return_user(response.id(), response.username(), response.email(), response.avatarUrl());
     }
 }
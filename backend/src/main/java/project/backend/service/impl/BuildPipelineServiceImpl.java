@@ -0,0 +1,141 @@
+package project.backend.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import project.backend.dto.BuildPipelineResponseDto;
+import project.backend.dto.BuildStepResultDto;
+import project.backend.entity.Project;
+import project.backend.exception.NotFoundException;
+import project.backend.filetree.FileTree;
+import project.backend.repository.ProjectRepository;
+import project.backend.service.BuildPipelineService;
+import project.backend.service.FileGenerationService;
+import project.backend.service.GitlabAsyncService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BuildPipelineServiceImpl implements BuildPipelineService {
+
+    private final ProjectRepository projectRepository;
+    private final GitlabAsyncService gitlabAsyncService;
+    private final FileGenerationService fileGenerationService;
+
+    @Override
+    public BuildPipelineResponseDto buildGitlabInfrastructure(Long projectId, long userId) {
+        Pipeline pipeline = new Pipeline();
+        AtomicReference<FileTree> repositoryFiles = new AtomicReference<>();
+
+        // The subgroups and the repository files only need the root group and the project data, not the GitLab project
+        Mono<Boolean> project = pipeline.step("project", List.of(),
+            () -> gitlabAsyncService.createGitlabProject(projectId, userId),
+            "Gitlab project created successfully", "Gitlab project creation failed");
+        Mono<Boolean> subgroups = pipeline.step("subgroups", List.of(),
+            () -> gitlabAsyncService.createGitlabSubgroups(projectId, userId),
+            "Gitlab subgroups created successfully", "Gitlab subgroups creation failed");
+        Mono<Boolean> files = pipeline.step("generate_files", List.of(),
+            () -> Mono.fromCallable(() -> {
+                Project entity = this.projectRepository.findForExportById(projectId)
+                    .orElseThrow(() -> new NotFoundException("Project not found"));
+                repositoryFiles.set(this.fileGenerationService.generateFileTree(entity));
+                log.info("Repository files generated: {}", repositoryFiles.get());
+                return true;
+            }).subscribeOn(Schedulers.boundedElastic()),
+            "Repository files generated successfully", "Repository files generation failed");
+
+        pipeline.step("project_users", List.of(project),
+            () -> gitlabAsyncService.addGitlabProjectUsers(projectId, userId),
+            "Gitlab project users added successfully", "Gitlab project users addition failed");
+        pipeline.step("subgroup_users", List.of(subgroups),
+            () -> gitlabAsyncService.addGitlabSubgroupsUsers(projectId, userId),
+            "Gitlab subgroups users added successfully", "Gitlab subgroups users addition failed");
+        Mono<Boolean> deployKey = pipeline.step("deploy_key", List.of(project),
+            () -> gitlabAsyncService.addGitlabDeployKey(projectId, userId),
+            "Gitlab deploy key added successfully", "Gitlab deploy key addition failed");
+        pipeline.step("labels", List.of(project),
+            () -> gitlabAsyncService.createGitlabProjectLabels(projectId, userId),
+            "Gitlab project labels generated successfully", "Gitlab project labels generation failed");
+        pipeline.step("repository_files", List.of(project, deployKey, files),
+            () -> gitlabAsyncService.uploadRepositoryFiles(projectId, repositoryFiles.get(), userId),
+            "Gitlab repository files uploaded successfully", "Gitlab repository files upload failed");
+
+        return pipeline.run();
+    }
+
+    /**
+     * Dependency graph of build steps. Every step is cached, so dependents share a single execution of it.
+     */
+    private static final class Pipeline {
+
+        private final List<String> order = new ArrayList<>();
+        private final List<Mono<Boolean>> steps = new ArrayList<>();
+        private final Map<String, BuildStepResultDto> results = new ConcurrentHashMap<>();
+
+        Mono<Boolean> step(String name, List<Mono<Boolean>> dependencies, Supplier<Mono<Boolean>> action,
+                           String successMessage, String failureMessage) {
+            Mono<Boolean> step = Flux.merge(dependencies)
+                .all(Boolean::booleanValue)
+                .flatMap(ready -> {
+                    if (!ready) {
+                        results.put(name, BuildStepResultDto.builder()
+                            .step(name)
+                            .skipped(true)
+                            .message("Skipped, a step it depends on failed")
+                            .build());
+                        return Mono.just(false);
+                    }
+
+                    long start = System.nanoTime();
+                    return Mono.defer(action)
+                        .defaultIfEmpty(false)
+                        .map(success -> result(name, success, success ? successMessage : failureMessage, start))
+                        .onErrorResume(e -> {
+                            log.error("Build step {} failed", name, e);
+                            return Mono.just(result(name, false, failureMessage + ": " + e.getMessage(), start));
+                        })
+                        .map(result -> {
+                            results.put(name, result);
+                            return result.isSuccess();
+                        });
+                })
+                .cache();
+
+            order.add(name);
+            steps.add(step);
+            return step;
+        }
+
+        BuildPipelineResponseDto run() {
+            long start = System.nanoTime();
+            Flux.merge(steps).then().block();
+            log.info("Build pipeline finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            List<BuildStepResultDto> stepResults = order.stream().map(results::get).toList();
+            return BuildPipelineResponseDto.builder()
+                .success(stepResults.stream().allMatch(BuildStepResultDto::isSuccess))
+                .steps(stepResults)
+                .build();
+        }
+
+        private static BuildStepResultDto result(String name, boolean success, String message, long start) {
+            return BuildStepResultDto.builder()
+                .step(name)
+                .success(success)
+                .message(message)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        }
+    }
+}
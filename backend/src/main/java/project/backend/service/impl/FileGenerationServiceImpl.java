@@ -1,411 +1,291 @@
 package project.backend.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.reactive.function.client.WebClientException;
+import project.backend.client.GitMirrorCache;
+import project.backend.client.GitOperations;
+import project.backend.client.ReferenceBlobStore;
 import project.backend.dto.CppsProjectJSONExportDto;
 import project.backend.dto.GitlabIssuePrTemplateDto;
 import project.backend.dto.UserJSONExportDto;
 import project.backend.entity.GitlabPrIssueTemplate;
 import project.backend.entity.Project;
 import project.backend.entity.WorkSpace;
-import project.backend.exception.NotFoundException;
+import project.backend.enums.RepositoryCheckMode;
+import project.backend.exception.GitOperationException;
+import project.backend.filetree.FileNode;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RemoteTree;
+import project.backend.filetree.RepositoryChangeSet;
+import project.backend.filetree.RepositoryIndex;
 import project.backend.mapper.ProjectMapper;
-import project.backend.repository.ProjectRepository;
-import project.backend.service.ExampleService;
 import project.backend.service.FileGenerationService;
 import project.backend.service.GitlabService;
-import project.backend.service.ProjectService;
+import project.backend.template.RepositoryTemplates;
+import project.backend.util.SlugUtil;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FileGenerationServiceImpl implements FileGenerationService {
 
+    private static final String MERGE_REQUEST_TEMPLATES_DIR = ".gitlab/merge_request_templates";
+    private static final String ISSUE_TEMPLATES_DIR = ".gitlab/issue_templates";
+    private static final String CONFIG_FILE = ".mdcppsepm/config.json";
+    private static final String GITKEEP = ".gitkeep";
+    private static final FileNode EMPTY_FILE = FileNode.of("");
+    private static final String REPOSITORY_NOT_READABLE = "Repository could not be read from GitLab, no files were checked";
+
     private final ProjectMapper projectMapper;
     private final GitlabService gitlabService;
+    private final GitOperations gitOperations;
+    private final GitMirrorCache gitMirrorCache;
+    private final RepositoryTemplates templates;
+    private final ReferenceBlobStore referenceBlobStore;
 
-    @Override
-    public String generateFileStructure(Project project){
+    @Value("${gitlab.git.private-key}")
+    private String privateKeyPath;
 
-        UUID randomUUID = UUID.randomUUID();
-        Path tempDir;
+    @Value("${gitlab.check.mode}")
+    private RepositoryCheckMode checkMode;
 
-        try {
-            tempDir = Files.createTempDirectory(project.getName() + "_" + randomUUID.toString().replace("-", ""));
-        } catch (IOException e) {
-            log.error("Error creating temporary directory", e);
-            return null;
-        }
-
-        String path = tempDir.toString();
+    @Override
+    public FileTree generateFileTree(Project project) {
+        FileTree.Builder files = FileTree.builder();
 
         // Generate all VCS files (.gitignore, .gitlab folder)
-        generateGitignoreFile(path, project);
-        generateGitlabMergeRequestTemplateFiles(path, project);
-        generateGitlabIssueTemplateFiles(path, project);
+        generateGitignoreFile(files);
+        generateGitlabMergeRequestTemplateFiles(files, project);
+        generateGitlabIssueTemplateFiles(files, project);
 
         // Generate GitOps files (gitlab-ci.yml, mdmcpps-cli.jar)
-        generateGitlabCiYmlFile(path, project);
-        generateMdmcppsCliJar(path);
+        generateGitlabCiYmlFile(files);
+        generateMdmcppsCliJar(files);
 
         // Generate documentation files (README.md, docs folder)
-        generateReadmeFile(path, project);
+        generateReadmeFile(files, project);
 
         // Generate configuration file
-        generateConfigFile(path, project);
+        generateConfigFile(files, project);
 
         // Generate files related to dependency management (mdcpps.json, libs folder)
-        generateDependencyManagementFiles(path, project);
+        generateDependencyManagementFiles(files, "");
 
         // Generate workspace content
-        generateCommonWorkspaceContent(path, project);
-        generateDomainWorkspaceContent(path, project);
+        generateCommonWorkspaceContent(files, project);
+        generateDomainWorkspaceContent(files, project);
 
         // Generate test related structure
-        generateTestStructure(path, project);
+        generateTestStructure(files);
 
-        return path;
+        return files.build();
     }
 
     @Override
-    public String updateFileStructure(Project project, long userId) {
-        UUID randomUUID = UUID.randomUUID();
-        Path tempDir;
+    public RepositoryChangeSet planRepositoryUpdate(RepositoryIndex repository, Project project) {
+        FileTree.Builder files = FileTree.builder();
 
-        try {
-            tempDir = Files.createTempDirectory(project.getName() + "_" + randomUUID.toString().replace("-", ""));
-        } catch (IOException e) {
-            log.error("Error creating temporary directory", e);
-            return null;
-        }
-
-        String path = tempDir.toString();
+        // The template directories are replaced as a whole, so templates removed from the project disappear
+        generateGitlabMergeRequestTemplateFiles(files, project);
+        generateGitlabIssueTemplateFiles(files, project);
 
-        cloneGitlabRepository(path, project, userId);
-        removeGitlabIssueTemplateFiles(path);
-        removeGitlabMergeRequestTemplateFiles(path);
+        generateMissingDomainWorkspaceFiles(files, repository, project);
 
-        generateGitlabMergeRequestTemplateFiles(path, project);
-        generateGitlabIssueTemplateFiles(path, project);
+        generateConfigFile(files, project);
 
-        generateMissingDomainWorkspaceFiles(path, project);
-
-        deleteConfigFile(path);
-        generateConfigFile(path, project);
-
-        return path;
+        return RepositoryChangeSet.of(repository, files.build(), List.of(MERGE_REQUEST_TEMPLATES_DIR, ISSUE_TEMPLATES_DIR));
     }
 
     @Override
-    public List<String> performFileStructureCheck(Project project, long userId) {
-        UUID randomUUID = UUID.randomUUID();
-        Path tempDir;
-
-        try {
-            tempDir = Files.createTempDirectory(project.getName() + "_" + randomUUID.toString().replace("-", ""));
-        } catch (IOException e) {
-            log.error("Error creating temporary directory", e);
-            return null;
-        }
-
-        String path = tempDir.toString();
-
-        cloneGitlabRepository(path, project, userId);
+    public List<String> checkFileTree(FileTree repository, Project project) {
+        return checkRepository(repository, path -> repository.get(path).toByteArray(), project);
+    }
 
+    /**
+     * Runs the consistency checks against the paths of a repository. Files whose content matters are compared by blob id
+     * first and only read through readFile when the id differs from the expected one.
+     */
+    private List<String> checkRepository(RepositoryIndex repository, Function<String, byte[]> readFile, Project project) {
         List<String> inconsistencies = new ArrayList<>();
         // Check if all files are present
-        if (!checkGitignoreFile(path)) {
+        if (!repository.contains(".gitignore")) {
             inconsistencies.add(".gitignore file is missing");
         }
 
-        if (!checkGitlabMergeRequestTemplateDirectory(path)) {
+        if (!repository.containsDirectory(MERGE_REQUEST_TEMPLATES_DIR)) {
             inconsistencies.add("GitLab merge request template directory is missing");
         }
 
-        if (!checkGitlabIssueTemplateDirectory(path)) {
+        if (!repository.containsDirectory(ISSUE_TEMPLATES_DIR)) {
             inconsistencies.add("GitLab issue template directory is missing");
         }
 
-        if (!checkGitlabCiYmlFile(path)) {
+        if (!repository.contains(".gitlab-ci.yml")) {
             inconsistencies.add(".gitlab-ci.yml file is missing");
         }
 
-        if (!checkMdmcppsCliJar(path)) {
+        if (!repository.contains("mdmcpps-cli.jar")) {
             inconsistencies.add("mdmcpps-cli.jar file is missing");
         }
 
-        if (!checkReadmeFile(path)) {
+        if (!repository.contains("README.md")) {
             inconsistencies.add("README.md file is missing");
         }
 
-        if (!checkConfigFile(path, project)) {
+        if (!checkConfigFile(repository, readFile, project)) {
             inconsistencies.add("config.json file is missing or incorrect");
         }
 
-        if (!checkDependencyManagementFiles(path)) {
+        if (!checkDependencyManagementFiles(repository, "")) {
             inconsistencies.add("Dependency management files are missing or incorrect");
         }
 
-        if (!checkCommonWorkspaceContent(path, project)) {
+        if (!checkCommonWorkspaceContent(repository, project)) {
             inconsistencies.add("Common workspace content is missing or incorrect");
         }
 
         inconsistencies.addAll(
-            checkDomainWorkspaceContent(path, project)
+            checkDomainWorkspaceContent(repository, project)
         );
 
-        deleteClonedRepository(path);
-
         return inconsistencies;
     }
 
-    private void cloneGitlabRepository(String tempDir, Project project, long userId) {
-        String rootGroupUrl = gitlabService.getRootGroupUrl(project.getId(), userId);
-        String projectUrl = gitlabService.getProjectUrl(project.getId(), userId);
-
-        log.info(tempDir);
-
-        String privateKeyPath = System.getProperty("user.home") + "/.ssh/id_rsa_mdcpps_epm";
-        privateKeyPath = privateKeyPath.replace("\\", "/");
-
-        // Verify if the private key exists
-        File privateKeyFile = new File(privateKeyPath);
-        if (!privateKeyFile.exists()) {
-            this.gitlabService.addGitlabDeployKey(project.getId(), userId);
+    @Override
+    public List<String> performFileStructureCheck(Project project, long userId) {
+        if (checkMode == RepositoryCheckMode.API) {
+            return performRemoteFileStructureCheck(project, userId);
         }
 
-        String gitSshCommand = "ssh -i " + privateKeyPath;
-
+        FileTree repository;
         try {
-            String command = "git clone git@gitlab.com:" + rootGroupUrl + "/" + projectUrl + ".git .";
-            log.info(command);
-            ProcessBuilder processBuilder = new ProcessBuilder(command.split(" "));
-            processBuilder.directory(new File(tempDir));
-            processBuilder.environment().put("GIT_SSH_COMMAND", gitSshCommand);
-            processBuilder.inheritIO();
-            Process process = processBuilder.start();
-            process.waitFor();
-        } catch (IOException | InterruptedException e) {
+            repository = readRepositoryMirror(project, userId);
+        } catch (GitOperationException | IOException e) {
             log.error("Error pulling from GitLab repository", e);
+            return List.of(REPOSITORY_NOT_READABLE);
         }
-    }
 
-    private void generateReadmeFile(String tempDir, Project project) {
-        // Generate README.md file
-        Path readmeFile = Path.of(tempDir, "README.md");
-        String toWrite = "# " + project.getName() + "\n\n" + project.getDescription() + " v. " + project.getVersion();
-        try {
-            Files.writeString(readmeFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing README.md file", e);
-        }
+        return checkFileTree(repository, project);
     }
 
-    private void generateGitignoreFile(String tempDir, Project project) {
-        // Generate .gitignore file
-        Path gitignoreFile = Path.of(tempDir, ".gitignore");
-        String toWrite = ".env\n";
+    /**
+     * Checks the repository through the GitLab API. A repository that cannot be read is reported as a single error,
+     * listing every file as missing would look like an empty repository. A missing repository reads as empty.
+     */
+    private List<String> performRemoteFileStructureCheck(Project project, long userId) {
         try {
-            Files.writeString(gitignoreFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing .gitignore file", e);
+            RemoteTree repository = gitlabService.getRepositoryTree(project.getId(), userId);
+            return checkRepository(repository,
+                path -> gitlabService.getRepositoryBlob(project.getId(), repository.blobId(path), userId), project);
+        } catch (WebClientException e) {
+            log.error("Error reading GitLab repository of project {}", project.getId(), e);
+            return List.of(REPOSITORY_NOT_READABLE);
         }
     }
 
-    private void generateConfigFile(String tempDir, Project project) {
-
-        Path configDir = Path.of(tempDir, ".mdcppsepm");
-        // Check if .mdcppsepm directory exists
-        if (!Files.exists(configDir)) {
-            try {
-                Files.createDirectory(configDir);
-            } catch (IOException e) {
-                log.error("Error creating config directory", e);
-            }
+    private FileTree readRepositoryMirror(Project project, long userId) throws IOException {
+        if (project.getGitlabProject() == null) {
+            log.error("Gitlab project of project {} not found", project.getId());
+            return FileTree.empty();
         }
 
-        Path configFile = Path.of(tempDir, ".mdcppsepm", "config.json");
-
-        CppsProjectJSONExportDto projectJSONExportDto = this.projectMapper.mapProjectEntityToCppsProjectJSONExportDto(project);
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        String formattedJson;
+        String rootGroupUrl = gitlabService.getRootGroupUrl(project.getId(), userId);
+        String projectUrl = gitlabService.getProjectUrl(project.getId(), userId);
 
-        try {
-            formattedJson = objectMapper.writeValueAsString(projectJSONExportDto);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting project to JSON", e);
-            return;
+        // Verify if the private key exists
+        File privateKeyFile = new File(privateKeyPath);
+        if (!privateKeyFile.exists()) {
+            this.gitlabService.addGitlabDeployKey(project.getId(), userId);
         }
 
-        try {
-            Files.writeString(configFile, formattedJson);
-        } catch (IOException e) {
-            log.error("Error writing config file", e);
-        }
+        return gitMirrorCache.withMirror(project.getGitlabProject().getGitlabId(), gitOperations.remoteUrl(rootGroupUrl, projectUrl), FileTree::read);
     }
 
-    private void generateGitlabCiYmlFile(String tempDir, Project project) {
-        // Generate .gitlab-ci.yml file
-        Path gitlabCiYmlFile = Path.of(tempDir, ".gitlab-ci.yml");
-        Path referenceGitlabCiYmlFile = Path.of("src/main/resources/repository/reference_gitlab_ci.yml");
-
-        try {
-            Files.copy(referenceGitlabCiYmlFile, gitlabCiYmlFile);
-        } catch (IOException e) {
-            log.error("Error creating .gitlab-ci.yml file", e);
-        }
+    private void generateReadmeFile(FileTree.Builder files, Project project) {
+        files.add("README.md", templates.render(RepositoryTemplates.README, Map.of(
+            "name", String.valueOf(project.getName()),
+            "description", String.valueOf(project.getDescription()),
+            "version", String.valueOf(project.getVersion())
+        )));
     }
 
-    private void generateGitlabMergeRequestTemplateFiles(String tempDir, Project project) {
-
-        Path gitlabDir = Path.of(tempDir, ".gitlab");
+    private void generateGitignoreFile(FileTree.Builder files) {
+        files.add(".gitignore", templates.render(RepositoryTemplates.GITIGNORE));
+    }
 
-        // Check if .gitlab directory exists
-        if (!Files.exists(gitlabDir)) {
-            try {
-                Files.createDirectory(gitlabDir);
-            } catch (IOException e) {
-                log.error("Error creating .gitlab directory", e);
-            }
+    private void generateConfigFile(FileTree.Builder files, Project project) {
+        FileNode configFile = createConfigFile(project);
+        if (configFile != null) {
+            files.add(CONFIG_FILE, configFile);
         }
+    }
 
-        Path mergeRequestTemplatesDir = Path.of(tempDir, ".gitlab/merge_request_templates");
-        try {
-            Files.createDirectory(mergeRequestTemplatesDir);
-        } catch (IOException e) {
-            log.error("Error creating .gitlab/merge_request_templates directory", e);
-        }
+    private FileNode createConfigFile(Project project) {
+        CppsProjectJSONExportDto projectJSONExportDto = this.projectMapper.mapProjectEntityToCppsProjectJSONExportDto(project);
 
-        // Generate .gitlab/merge_request_templates/default.md file
-        int counter = 0;
-        for (GitlabPrIssueTemplate template : project.getGitlabPrIssueTemplates()) {
-            if (template.getIsPrTemplate()) {
-                counter++;
-                Path gitlabMergeRequestTemplateFile = Path.of(tempDir, ".gitlab/merge_request_templates/" + createSlug(template.getName()) + ".md");
-                String toWrite = template.getContent();
-                try {
-                    Files.writeString(gitlabMergeRequestTemplateFile, toWrite);
-                } catch (IOException e) {
-                    log.error("Error writing .gitlab/merge_request_templates/" + createSlug(template.getName()) + ".md file", e);
-                }
-            }
-        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
 
-        if (counter == 0) {
-            Path gitkeepFile = Path.of(tempDir, ".gitlab/merge_request_templates/.gitkeep");
-            try {
-                Files.writeString(gitkeepFile, "");
-            } catch (IOException e) {
-                log.error("Error writing .gitkeep file", e);
-            }
+        try {
+            return FileNode.of(objectMapper.writeValueAsString(projectJSONExportDto));
+        } catch (JsonProcessingException e) {
+            log.error("Error converting project to JSON", e);
+            return null;
         }
     }
 
-    private void generateMdmcppsCliJar(String tempDir) {
-        Path mdmccpsCliJar = Path.of(tempDir, "mdmcpps-cli.jar");
-        Path referenceMdmccpsCliJar = Path.of("src/main/resources/repository/mdmcpps-cli.jar");
+    private void generateGitlabCiYmlFile(FileTree.Builder files) {
+        addReferenceFile(files, ".gitlab-ci.yml", "reference_gitlab_ci.yml");
+    }
 
-        try {
-            Files.copy(referenceMdmccpsCliJar, mdmccpsCliJar);
-        } catch (IOException e) {
-            log.error("Error creating mdmccps-cli.jar file", e);
-        }
+    private void generateMdmcppsCliJar(FileTree.Builder files) {
+        addReferenceFile(files, "mdmcpps-cli.jar", "mdmcpps-cli.jar");
     }
 
-    private void removeGitlabMergeRequestTemplateFiles(String tempDir) {
-        Path mergeRequestTemplatesDir = Path.of(tempDir, ".gitlab/merge_request_templates");
-        if (!Files.exists(mergeRequestTemplatesDir)) {
+    private void addReferenceFile(FileTree.Builder files, String path, String referenceName) {
+        FileNode reference = referenceBlobStore.get(referenceName);
+        if (reference == null) {
+            log.error("Error creating {} file, reference file {} is missing", path, referenceName);
             return;
         }
-        try {
-            Files.walk(mergeRequestTemplatesDir)
-                .sorted(Comparator.reverseOrder())
-                .forEach(path -> {
-                    try {
-                        log.info("Deleting file: " + path);
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        log.error("Error deleting file: " + path, e);
-                    }
-                });
-        } catch (IOException e) {
-            log.error("Error deleting .gitlab/merge_request_templates directory", e);
-        }
+        files.add(path, reference);
     }
 
-    private void generateGitlabIssueTemplateFiles(String tempDir, Project project) {
+    private void generateGitlabMergeRequestTemplateFiles(FileTree.Builder files, Project project) {
+        generateTemplateFiles(files, project, MERGE_REQUEST_TEMPLATES_DIR, true);
+    }
 
-        Path issueTemplatesDir = Path.of(tempDir, ".gitlab/issue_templates");
-        try {
-            Files.createDirectory(issueTemplatesDir);
-        } catch (IOException e) {
-            log.error("Error creating .gitlab/issue_templates directory", e);
-        }
+    private void generateGitlabIssueTemplateFiles(FileTree.Builder files, Project project) {
+        generateTemplateFiles(files, project, ISSUE_TEMPLATES_DIR, false);
+    }
 
-        // Generate .gitlab/issue_templates/default.md file
+    private void generateTemplateFiles(FileTree.Builder files, Project project, String directory, boolean prTemplates) {
+        // Generate one <slug>.md file per template, an empty directory is kept with a .gitkeep file
         int counter = 0;
         for (GitlabPrIssueTemplate template : project.getGitlabPrIssueTemplates()) {
-            if (!template.getIsPrTemplate()) {
+            if (template.getIsPrTemplate() == prTemplates) {
                 counter++;
-                Path gitlabIssueTemplateFile = Path.of(tempDir, ".gitlab/issue_templates/" + createSlug(template.getName()) + ".md");
-                String toWrite = template.getContent();
-                try {
-                    Files.writeString(gitlabIssueTemplateFile, toWrite);
-                } catch (IOException e) {
-                    log.error("Error writing .gitlab/issue_templates/" + createSlug(template.getName()) + ".md file", e);
-                }
+                files.add(directory + "/" + SlugUtil.createSlug(template.getName()) + ".md", template.getContent());
             }
         }
 
         if (counter == 0) {
-            Path gitkeepFile = Path.of(tempDir, ".gitlab/issue_templates/.gitkeep");
-            try {
-                Files.writeString(gitkeepFile, "");
-            } catch (IOException e) {
-                log.error("Error writing .gitkeep file", e);
-            }
+            files.add(directory + "/" + GITKEEP, EMPTY_FILE);
         }
     }
 
-    private void removeGitlabIssueTemplateFiles(String tempDir) {
-        Path issueTemplatesDir = Path.of(tempDir, ".gitlab/issue_templates");
-        if (!Files.exists(issueTemplatesDir)) {
-            return;
-        }
-        try {
-            Files.walk(issueTemplatesDir)
-                .sorted(Comparator.reverseOrder())
-                .forEach(path -> {
-                    try {
-                        log.info("Deleting file: " + path);
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        log.error("Error deleting file: " + path, e);
-                    }
-                });
-        } catch (IOException e) {
-            log.error("Error deleting .gitlab/issue_templates directory", e);
-        }
-    }
-
-    private void generateCommonWorkspaceContent(String tempDir, Project project) {
+    private void generateCommonWorkspaceContent(FileTree.Builder files, Project project) {
         WorkSpace commonWorkspace = project.getWorkSpaces().stream().filter(WorkSpace::getIsCommon).findFirst().orElse(null);
 
         if (commonWorkspace == null) {
@@ -413,377 +293,74 @@ public class FileGenerationServiceImpl implements FileGenerationService {
             return;
         }
 
-        String commonWorkspaceDirName = createSlug(commonWorkspace.getName());
-
-        if (!commonWorkspaceDirName.endsWith("_workspace")) {
-            commonWorkspaceDirName += "_workspace";
-        }
-
-        Path commonWorkspaceDir = Path.of(tempDir, commonWorkspaceDirName);
-
-        try {
-            Files.createDirectory(commonWorkspaceDir);
-        } catch (IOException e) {
-            log.error("Error creating common_workspace directory", e);
-        }
-
-        // Create models and impl directories
-        Path modelsDir = Path.of(tempDir, commonWorkspaceDirName, "models");
-        if (!Files.exists(modelsDir)) {
-            try {
-                Files.createDirectory(modelsDir);
-            } catch (IOException e) {
-                log.error("Error creating models directory", e);
-            }
-        }
-
-        Path implDir = Path.of(tempDir, commonWorkspaceDirName, "impl");
-        if (!Files.exists(implDir)) {
-            try {
-                Files.createDirectory(implDir);
-            } catch (IOException e) {
-                log.error("Error creating impl directory", e);
-            }
-        }
-
-        Path commonWorkspaceFile = Path.of(tempDir, commonWorkspaceDirName, "models", createSlug(commonWorkspace.getName()) + ".ccg");
-        String toWrite = "";
-        try {
-            Files.writeString(commonWorkspaceFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing common_workspace file", e);
-        }
-
-        Path gitkeepFile = Path.of(tempDir, commonWorkspaceDirName, "impl", ".gitkeep");
-        toWrite = "";
-        try {
-            Files.writeString(gitkeepFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing .gitkeep file", e);
-        }
-
-        Path commonWorkspaceTestDir = Path.of(tempDir, commonWorkspaceDirName, "test");
-        if (!Files.exists(commonWorkspaceTestDir)) {
-            try {
-                Files.createDirectory(commonWorkspaceTestDir);
-            } catch (IOException e) {
-                log.error("Error creating test directory", e);
-            }
-        }
-
-        Path commonWorkspaceTestGitkeepFile = Path.of(tempDir, commonWorkspaceDirName, "test", ".gitkeep");
-        toWrite = "";
-        try {
-            Files.writeString(commonWorkspaceTestGitkeepFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing .gitkeep file", e);
-        }
-
-
-        this.generateDependencyManagementFiles(String.valueOf(commonWorkspaceDir), project);
+        generateWorkspaceFiles(files, commonWorkspace, ".ccg", RepositoryTemplates.COMMON_WORKSPACE_MODEL);
     }
 
-    private void generateDomainWorkspaceContent(String tempDir, Project project) {
+    private void generateDomainWorkspaceContent(FileTree.Builder files, Project project) {
         for (WorkSpace domainWorkspace : project.getWorkSpaces()) {
             if (!domainWorkspace.getIsCommon()) {
-                String domainWorkspaceDirName = createSlug(domainWorkspace.getName());
-
-                if (!domainWorkspaceDirName.endsWith("_workspace")) {
-                    domainWorkspaceDirName += "_workspace";
-                }
-
-                Path domainWorkspaceDir = Path.of(tempDir, domainWorkspaceDirName);
-
-                try {
-                    Files.createDirectory(domainWorkspaceDir);
-                } catch (IOException e) {
-                    log.error("Error creating domain_workspace directory", e);
-                }
-
-                Path modelsDir = Path.of(tempDir, domainWorkspaceDirName, "models");
-                if (!Files.exists(modelsDir)) {
-                    try {
-                        Files.createDirectory(modelsDir);
-                    } catch (IOException e) {
-                        log.error("Error creating models directory", e);
-                    }
-                }
-
-                Path implDir = Path.of(tempDir, domainWorkspaceDirName, "impl");
-                if (!Files.exists(implDir)) {
-                    try {
-                        Files.createDirectory(implDir);
-                    } catch (IOException e) {
-                        log.error("Error creating impl directory", e);
-                    }
-                }
-
-                Path domainWorkspaceFile = Path.of(tempDir, domainWorkspaceDirName, "models", createSlug(domainWorkspace.getName()) + ".cg");
-                String toWrite = "";
-                try {
-                    Files.writeString(domainWorkspaceFile, toWrite);
-                } catch (IOException e) {
-                    log.error("Error writing domain_workspace file", e);
-                }
-
-                Path gitkeepFile = Path.of(tempDir, domainWorkspaceDirName, "impl", ".gitkeep");
-                toWrite = "";
-                try {
-                    Files.writeString(gitkeepFile, toWrite);
-                } catch (IOException e) {
-                    log.error("Error writing .gitkeep file", e);
-                }
-
-                Path domainWorkspaceTestDir = Path.of(tempDir, domainWorkspaceDirName, "test");
-                if (!Files.exists(domainWorkspaceTestDir)) {
-                    try {
-                        Files.createDirectory(domainWorkspaceTestDir);
-                    } catch (IOException e) {
-                        log.error("Error creating test directory", e);
-                    }
-                }
-
-                Path domainWorkspaceTestGitkeepFile = Path.of(tempDir, domainWorkspaceDirName, "test", ".gitkeep");
-                toWrite = "";
-                try {
-                    Files.writeString(domainWorkspaceTestGitkeepFile, toWrite);
-                } catch (IOException e) {
-                    log.error("Error writing .gitkeep file", e);
-                }
-
-                this.generateDependencyManagementFiles(String.valueOf(domainWorkspaceDir), project);
+                generateWorkspaceFiles(files, domainWorkspace, ".cg", RepositoryTemplates.DOMAIN_WORKSPACE_MODEL);
             }
         }
     }
 
-    private void generateMissingDomainWorkspaceFiles(String tempDir, Project project) {
+    private void generateMissingDomainWorkspaceFiles(FileTree.Builder files, RepositoryIndex repository, Project project) {
         for (WorkSpace domainWorkspace : project.getWorkSpaces()) {
-            if (!domainWorkspace.getIsCommon()) {
-                String domainWorkspaceDirName = createSlug(domainWorkspace.getName());
-
-                if (!domainWorkspaceDirName.endsWith("_workspace")) {
-                    domainWorkspaceDirName += "_workspace";
-                }
-
-                Path domainWorkspaceDir = Path.of(tempDir, domainWorkspaceDirName);
-
-                if (Files.exists(domainWorkspaceDir)) {
-                    continue;
-                }
-
-                try {
-                    Files.createDirectory(domainWorkspaceDir);
-                } catch (IOException e) {
-                    log.error("Error creating domain_workspace directory", e);
-                }
-
-                Path modelsDir = Path.of(tempDir, domainWorkspaceDirName, "models");
-                if (!Files.exists(modelsDir)) {
-                    try {
-                        Files.createDirectory(modelsDir);
-                    } catch (IOException e) {
-                        log.error("Error creating models directory", e);
-                    }
-                }
-
-                Path implDir = Path.of(tempDir, domainWorkspaceDirName, "impl");
-                if (!Files.exists(implDir)) {
-                    try {
-                        Files.createDirectory(implDir);
-                    } catch (IOException e) {
-                        log.error("Error creating impl directory", e);
-                    }
-                }
-
-                Path domainWorkspaceFile = Path.of(tempDir, domainWorkspaceDirName, "models", createSlug(domainWorkspace.getName()) + ".cg");
-                if (!Files.exists(domainWorkspaceFile)) {
-                    String toWrite = "";
-                    try {
-                        Files.writeString(domainWorkspaceFile, toWrite);
-                    } catch (IOException e) {
-                        log.error("Error writing domain_workspace file", e);
-                    }
-                }
-
-                Path gitkeepFile = Path.of(tempDir, domainWorkspaceDirName, "impl", ".gitkeep");
-                if (!Files.exists(gitkeepFile)) {
-                    String toWrite = "";
-                    try {
-                        Files.writeString(gitkeepFile, toWrite);
-                    } catch (IOException e) {
-                        log.error("Error writing .gitkeep file", e);
-                    }
-                }
-
-                Path domainWorkspaceTestDir = Path.of(tempDir, domainWorkspaceDirName, "test");
-                if (!Files.exists(domainWorkspaceTestDir)) {
-                    try {
-                        Files.createDirectory(domainWorkspaceTestDir);
-                    } catch (IOException e) {
-                        log.error("Error creating test directory", e);
-                    }
-                }
-
-                Path domainWorkspaceTestGitkeepFile = Path.of(tempDir, domainWorkspaceDirName, "test", ".gitkeep");
-                if (!Files.exists(domainWorkspaceTestGitkeepFile)) {
-                    String toWrite = "";
-                    try {
-                        Files.writeString(domainWorkspaceTestGitkeepFile, toWrite);
-                    } catch (IOException e) {
-                        log.error("Error writing .gitkeep file", e);
-                    }
-                }
-
-                this.generateDependencyManagementFiles(String.valueOf(domainWorkspaceDir), project);
+            if (!domainWorkspace.getIsCommon() && !repository.containsDirectory(workspaceDirectory(domainWorkspace))) {
+                generateWorkspaceFiles(files, domainWorkspace, ".cg", RepositoryTemplates.DOMAIN_WORKSPACE_MODEL);
             }
         }
     }
 
-    private String createSlug(String input){
-        return input.toLowerCase().replaceAll("[^a-z0-9]", "_");
-    }
-
-    private void deleteConfigFile(String tempDir) {
-        Path configFile = Path.of(tempDir, ".mdcppsepm", "config.json");
-        if (Files.exists(configFile)) {
-            try {
-                Files.delete(configFile);
-            } catch (IOException e) {
-                log.error("Error deleting config file", e);
-            }
-        }
-    }
+    private void generateWorkspaceFiles(FileTree.Builder files, WorkSpace workSpace, String modelExtension, String modelTemplate) {
+        String slug = SlugUtil.createSlug(workSpace.getName());
+        String workspaceDir = workspaceDirectory(slug) + "/";
 
-    private void generateDependencyManagementFiles(String tempDir, Project project) {
-        Path libsDir = Path.of(tempDir, "libs");
-        if (!Files.exists(libsDir)) {
-            try {
-                Files.createDirectory(libsDir);
-            } catch (IOException e) {
-                log.error("Error creating libs directory", e);
-            }
-        }
+        files.add(workspaceDir + "models/" + slug + modelExtension, templates.render(modelTemplate, Map.of("name", workSpace.getName())));
+        files.add(workspaceDir + "impl/" + GITKEEP, EMPTY_FILE);
+        files.add(workspaceDir + "test/" + GITKEEP, EMPTY_FILE);
 
-        Path gitkeepFile = Path.of(tempDir, "libs", ".gitkeep");
-        String toWrite = "";
-        try {
-            Files.writeString(gitkeepFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing .gitkeep file", e);
-        }
-
-        Path mdcppsJsonFile = Path.of(tempDir, "mdcpps.json");
-        toWrite = "{\n" +
-                "  \"dependencies\": []\n" +
-                "}";
-        try {
-            Files.writeString(mdcppsJsonFile, toWrite);
-        } catch (IOException e) {
-            log.error("Error writing mdcpps.json file", e);
-        }
+        generateDependencyManagementFiles(files, workspaceDir);
     }
 
-    private void generateSourceRootFolder(String tempDir, Project project) {
-        Path srcDir = Path.of(tempDir, "src");
-        if (!Files.exists(srcDir)) {
-            try {
-                Files.createDirectory(srcDir);
-            } catch (IOException e) {
-                log.error("Error creating src directory", e);
-            }
-        }
+    private String workspaceDirectory(WorkSpace workSpace) {
+        return workspaceDirectory(SlugUtil.createSlug(workSpace.getName()));
     }
 
-    private void generateTestStructure(String tempDir, Project project) {
-        Path unitDir = Path.of(tempDir, "src", "test", "unit");
-        if (!Files.exists(unitDir)) {
-            try {
-                Files.createDirectory(unitDir);
-            } catch (IOException e) {
-                log.error("Error creating unit directory", e);
-            }
-        }
-
-        Path integrationDir = Path.of(tempDir, "src", "test", "integration");
-        if (!Files.exists(integrationDir)) {
-            try {
-                Files.createDirectory(integrationDir);
-            } catch (IOException e) {
-                log.error("Error creating integration directory", e);
-            }
-        }
-
-        Path unitReadmeFile = Path.of(tempDir, "src", "test", "unit", "README.md");
-        String unitReadmeContent = "# Unit Tests\n\nThis directory contains all unit tests for the project.";
-        try {
-            Files.writeString(unitReadmeFile, unitReadmeContent);
-        } catch (IOException e) {
-            log.error("Error writing unit tests README.md file", e);
-        }
-
-        Path integrationReadmeFile = Path.of(tempDir, "src", "test", "integration", "README.md");
-        String integrationReadmeContent = "# Integration Tests\n\nThis directory contains all integration tests for the project.";
-        try {
-            Files.writeString(integrationReadmeFile, integrationReadmeContent);
-        } catch (IOException e) {
-            log.error("Error writing integration tests README.md file", e);
-        }
-    }
+    private String workspaceDirectory(String slug) {
+        String workspaceDirName = slug;
 
-    private void deleteClonedRepository(String tempDir) {
-        try {
-            Files.walk(Path.of(tempDir))
-                .sorted(Comparator.reverseOrder())
-                .forEach(path -> {
-                    try {
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        log.error("Error deleting file: " + path, e);
-                    }
-                });
-        } catch (IOException e) {
-            log.error("Error deleting cloned repository", e);
+        if (!workspaceDirName.endsWith("_workspace")) {
+            workspaceDirName += "_workspace";
         }
-    }
-
-    private boolean checkGitignoreFile(String tempDir) {
-        Path gitignoreFile = Path.of(tempDir, ".gitignore");
-        return Files.exists(gitignoreFile);
-    }
-
-    private boolean checkGitlabMergeRequestTemplateDirectory(String tempDir) {
-        Path mergeRequestTemplatesDir = Path.of(tempDir, ".gitlab/merge_request_templates");
-        return Files.exists(mergeRequestTemplatesDir);
-    }
 
-    private boolean checkGitlabIssueTemplateDirectory(String tempDir) {
-        Path issueTemplatesDir = Path.of(tempDir, ".gitlab/issue_templates");
-        return Files.exists(issueTemplatesDir);
+        return workspaceDirName;
     }
 
-    private boolean checkGitlabCiYmlFile(String tempDir) {
-        Path gitlabCiYmlFile = Path.of(tempDir, ".gitlab-ci.yml");
-        return Files.exists(gitlabCiYmlFile);
+    private void generateDependencyManagementFiles(FileTree.Builder files, String directory) {
+        files.add(directory + "libs/" + GITKEEP, EMPTY_FILE);
+        files.add(directory + "mdcpps.json", templates.render(RepositoryTemplates.DEPENDENCIES));
     }
 
-    private boolean checkMdmcppsCliJar(String tempDir) {
-        Path mdmcppsCliJar = Path.of(tempDir, "mdmcpps-cli.jar");
-        return Files.exists(mdmcppsCliJar);
+    private void generateTestStructure(FileTree.Builder files) {
+        files.add("src/test/unit/README.md", templates.render(RepositoryTemplates.UNIT_TESTS_README));
+        files.add("src/test/integration/README.md", templates.render(RepositoryTemplates.INTEGRATION_TESTS_README));
     }
 
-    private boolean checkReadmeFile(String tempDir) {
-        Path readmeFile = Path.of(tempDir, "README.md");
-        return Files.exists(readmeFile);
-    }
+    private boolean checkConfigFile(RepositoryIndex repository, Function<String, byte[]> readFile, Project project) {
+        String blobId = repository.blobId(CONFIG_FILE);
+        if (blobId == null) {
+            return false;
+        }
 
-    private boolean checkDocsFolder(String tempDir) {
-        Path docsDir = Path.of(tempDir, "docs");
-        return Files.exists(docsDir);
-    }
+        // A config file identical to the one generated now is correct, only a differing one has to be read and compared
+        FileNode expectedConfigFile = createConfigFile(project);
+        if (expectedConfigFile != null && blobId.equals(expectedConfigFile.getBlobId())) {
+            return true;
+        }
 
-    private boolean checkConfigFile(String tempDir, Project project) {
-        Path configFile = Path.of(tempDir, ".mdcppsepm", "config.json");
-        if (!Files.exists(configFile)) {
+        byte[] content = readFile.apply(CONFIG_FILE);
+        if (content == null) {
             return false;
         }
 
@@ -791,7 +368,7 @@ public class FileGenerationServiceImpl implements FileGenerationService {
         CppsProjectJSONExportDto projectJSONExportDto;
 
         try {
-            projectJSONExportDto = objectMapper.readValue(Files.readString(configFile), CppsProjectJSONExportDto.class);
+            projectJSONExportDto = objectMapper.readValue(content, CppsProjectJSONExportDto.class);
         } catch (IOException e) {
             log.error("Error reading config file", e);
             return false;
@@ -817,36 +394,11 @@ public class FileGenerationServiceImpl implements FileGenerationService {
         return projectJSONExportDto.equals(projectJSONExportDtoFromEntity);
     }
 
-    private boolean checkDependencyManagementFiles(String tempDir) {
-        Path libsDir = Path.of(tempDir, "libs");
-        if (!Files.exists(libsDir)) {
-            return false;
-        }
-
-        Path mdcppsJsonFile = Path.of(tempDir, "mdcpps.json");
-        if (!Files.exists(mdcppsJsonFile)) {
-            return false;
-        }
-
-        return true;
+    private boolean checkDependencyManagementFiles(RepositoryIndex repository, String directory) {
+        return repository.containsDirectory(directory + "libs") && repository.contains(directory + "mdcpps.json");
     }
 
-    private boolean checkSourceRootFolder(String tempDir) {
-        Path srcDir = Path.of(tempDir, "src");
-        return Files.exists(srcDir);
-    }
-
-    private boolean checkMdcppsFolder(String tempDir) {
-        Path mdcppsDir = Path.of(tempDir, "src", "mdcpps");
-        return Files.exists(mdcppsDir);
-    }
-
-    private boolean checkTestFolder(String tempDir) {
-        Path testDir = Path.of(tempDir, "src", "test");
-        return Files.exists(testDir);
-    }
-
-    private boolean checkCommonWorkspaceContent(String tempDir, Project project) {
+    private boolean checkCommonWorkspaceContent(RepositoryIndex repository, Project project) {
         WorkSpace commonWorkspace = project.getWorkSpaces().stream().filter(WorkSpace::getIsCommon).findFirst().orElse(null);
 
         if (commonWorkspace == null) {
@@ -854,117 +406,54 @@ public class FileGenerationServiceImpl implements FileGenerationService {
             return false;
         }
 
-        String commonWorkspaceDirName = createSlug(commonWorkspace.getName());
-
-        if (!commonWorkspaceDirName.endsWith("_workspace")) {
-            commonWorkspaceDirName += "_workspace";
-        }
-
-        Path commonWorkspaceDir = Path.of(tempDir, commonWorkspaceDirName);
+        String workspaceDir = workspaceDirectory(commonWorkspace) + "/";
 
-        if (!Files.exists(commonWorkspaceDir)) {
-            return false;
-        }
-
-        Path modelsDir = Path.of(tempDir, commonWorkspaceDirName, "models");
-        if (!Files.exists(modelsDir)) {
-            return false;
-        }
-
-        Path implDir = Path.of(tempDir, commonWorkspaceDirName, "impl");
-        if (!Files.exists(implDir)) {
-            return false;
-        }
-
-        Path dependencyManagementFiles = Path.of(tempDir, commonWorkspaceDirName, "mdcpps.json");
-        if (!Files.exists(dependencyManagementFiles)) {
-            return false;
-        }
-
-        Path dependencyDir = Path.of(tempDir, commonWorkspaceDirName, "libs");
-        if (!Files.exists(dependencyDir)) {
-            return false;
-        }
-
-        Path testDir = Path.of(tempDir, commonWorkspaceDirName, "test");
-        if (!Files.exists(testDir)) {
-            return false;
-        }
-
-        Path commonWorkspaceFile = Path.of(tempDir, commonWorkspaceDirName, "models", createSlug(commonWorkspace.getName()) + ".ccg");
-
-        return Files.exists(commonWorkspaceFile);
+        return repository.containsDirectory(workspaceDir)
+            && repository.containsDirectory(workspaceDir + "models")
+            && repository.containsDirectory(workspaceDir + "impl")
+            && checkDependencyManagementFiles(repository, workspaceDir)
+            && repository.containsDirectory(workspaceDir + "test")
+            && repository.contains(workspaceDir + "models/" + SlugUtil.createSlug(commonWorkspace.getName()) + ".ccg");
     }
 
-    private List<String> checkDomainWorkspaceContent(String tempDir, Project project) {
+    private List<String> checkDomainWorkspaceContent(RepositoryIndex repository, Project project) {
         List<String> inconsistentWorkspaces = new ArrayList<>();
         for (WorkSpace domainWorkspace : project.getWorkSpaces()) {
             if (!domainWorkspace.getIsCommon()) {
-                String domainWorkspaceDirName = createSlug(domainWorkspace.getName());
-
-                if (!domainWorkspaceDirName.endsWith("_workspace")) {
-                    domainWorkspaceDirName += "_workspace";
-                }
+                String workspaceDir = workspaceDirectory(domainWorkspace) + "/";
+                String name = domainWorkspace.getName();
 
-                Path domainWorkspaceDir = Path.of(tempDir, domainWorkspaceDirName);
-
-                if (!Files.exists(domainWorkspaceDir)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " is missing");
+                if (!repository.containsDirectory(workspaceDir)) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " is missing");
                     continue;
                 }
 
-                Path modelsDir = Path.of(tempDir, domainWorkspaceDirName, "models");
-                if (!Files.exists(modelsDir)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " models directory is missing");
+                if (!repository.containsDirectory(workspaceDir + "models")) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " models directory is missing");
                 }
 
-                Path implDir = Path.of(tempDir, domainWorkspaceDirName, "impl");
-                if (!Files.exists(implDir)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " impl directory is missing");
+                if (!repository.containsDirectory(workspaceDir + "impl")) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " impl directory is missing");
                 }
 
-                Path dependencyManagementFiles = Path.of(tempDir, domainWorkspaceDirName, "mdcpps.json");
-                if (!Files.exists(dependencyManagementFiles)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " dependency management files are missing");
+                if (!repository.contains(workspaceDir + "mdcpps.json")) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " dependency management files are missing");
                 }
 
-                Path dependencyDir = Path.of(tempDir, domainWorkspaceDirName, "libs");
-                if (!Files.exists(dependencyDir)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " dependency directory is missing");
+                if (!repository.containsDirectory(workspaceDir + "libs")) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " dependency directory is missing");
                 }
 
-                Path domainWorkspaceFile = Path.of(tempDir, domainWorkspaceDirName, "models", createSlug(domainWorkspace.getName()) + ".cg");
-                if (!Files.exists(domainWorkspaceFile)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " file is missing");
+                if (!repository.contains(workspaceDir + "models/" + SlugUtil.createSlug(name) + ".cg")) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " file is missing");
                 }
 
-                Path testDir = Path.of(tempDir, domainWorkspaceDirName, "test");
-                if (!Files.exists(testDir)) {
-                    inconsistentWorkspaces.add("Domain workspace " + domainWorkspace.getName() + " test directory is missing");
+                if (!repository.containsDirectory(workspaceDir + "test")) {
+                    inconsistentWorkspaces.add("Domain workspace " + name + " test directory is missing");
                 }
             }
         }
 
         return inconsistentWorkspaces;
     }
-
-    private boolean checkTestStructure(String tempDir) {
-        Path unitDir = Path.of(tempDir, "src", "test", "unit");
-        if (!Files.exists(unitDir)) {
-            return false;
-        }
-
-        Path integrationDir = Path.of(tempDir, "src", "test", "integration");
-        if (!Files.exists(integrationDir)) {
-            return false;
-        }
-
-        Path unitReadmeFile = Path.of(tempDir, "src", "test", "unit", "README.md");
-        if (!Files.exists(unitReadmeFile)) {
-            return false;
-        }
-
-        Path integrationReadmeFile = Path.of(tempDir, "src", "test", "integration", "README.md");
-        return Files.exists(integrationReadmeFile);
-    }
 }
@@ -0,0 +1,662 @@
+package project.backend.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import project.backend.client.GitMirrorCache;
+import project.backend.client.GitOperations;
+import project.backend.client.GitlabApiClient;
+import project.backend.client.GitlabCommitUploader;
+import project.backend.client.dto.GitlabGroupResponse;
+import project.backend.client.dto.GitlabMemberResponse;
+import project.backend.client.dto.GitlabProjectResponse;
+import project.backend.dto.GitlabGroupListItemDto;
+import project.backend.entity.GitlabProject;
+import project.backend.entity.GitlabSubgroup;
+import project.backend.entity.Project;
+import project.backend.entity.ProjectUserAccess;
+import project.backend.entity.User;
+import project.backend.entity.WorkSpace;
+import project.backend.enums.RepositoryUpdateResult;
+import project.backend.enums.UploadMode;
+import project.backend.exception.GitOperationException;
+import project.backend.exception.NotFoundException;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RemoteTree;
+import project.backend.filetree.RepositoryChangeSet;
+import project.backend.repository.GitlabProjectRepository;
+import project.backend.repository.GitlabSubgroupRepository;
+import project.backend.repository.ProjectRepository;
+import project.backend.service.GitlabAsyncService;
+import project.backend.service.UserService;
+import project.backend.util.LongHashSet;
+import project.backend.util.SlugUtil;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GitlabAsyncServiceImpl implements GitlabAsyncService {
+
+    private static final List<String> LABELS = List.of("Change Request (CR)", "Review Task (RT)", "WiP (CR)", "Review (CR)", "Review (RT)", "Requested (RT)", "Rework (RT)", "Escalate (RT)");
+    private static final List<String> LABEL_COLORS = List.of("red", "green", "blue", "yellow", "purple", "orange", "pink", "gray");
+    private static final long KEY_GENERATION_TIMEOUT_SECONDS = 30;
+    private static final String DEFAULT_BRANCH = "main";
+
+    private final UserService userService;
+    private final ProjectRepository projectRepository;
+    private final GitlabProjectRepository gitlabProjectRepository;
+    private final GitlabSubgroupRepository gitlabSubgroupRepository;
+    private final GitlabApiClient gitlabApiClient;
+    private final GitOperations gitOperations;
+    private final GitMirrorCache gitMirrorCache;
+    private final GitlabCommitUploader gitlabCommitUploader;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gitlab.client.max-concurrency}")
+    private int maxConcurrency;
+
+    @Value("${gitlab.git.private-key}")
+    private String privateKeyPath;
+
+    @Value("${gitlab.upload.mode}")
+    private UploadMode uploadMode;
+
+    @Override
+    public Mono<List<GitlabGroupListItemDto>> getAllUserGroups(long userId) {
+        return accessToken(userId)
+            .flatMapMany(gitlabApiClient::listTopLevelGroups)
+            .map(group -> GitlabGroupListItemDto.builder()
+                .id(group.id())
+                .name(group.name())
+                .build())
+            .collectList()
+            .onErrorMap(DecodingException.class, e -> {
+                log.error("Error parsing JSON response", e);
+                return new NotFoundException("User not found");
+            });
+    }
+
+    @Override
+    public Mono<Boolean> createGitlabProject(Long projectId, long userId) {
+        return findProject(projectId).flatMap(project -> {
+            String projectName = SlugUtil.createSlug(project.getName());
+            Long namespaceId = project.getExternalToolsData().getRootGroupId();
+
+            return accessToken(userId)
+                .flatMap(token -> gitlabApiClient.createProject(token, projectName, namespaceId))
+                .flatMap(response -> {
+                    if (response.id() == null) {
+                        log.error("Unexpected response when creating Gitlab project: {}", response);
+                        return Mono.just(false);
+                    }
+                    return blocking(() -> {
+                        GitlabProject gitlabProject = GitlabProject.builder()
+                            .project(project)
+                            .gitlabId(response.id())
+                            .build();
+                        this.gitlabProjectRepository.save(gitlabProject);
+                        return true;
+                    });
+                })
+                .defaultIfEmpty(false);
+        });
+    }
+
+    @Override
+    public Mono<Boolean> createGitlabSubgroups(Long projectId, long userId) {
+        return findProjectWithWorkspaces(projectId).flatMap(project -> {
+            Long parentGroupId = project.getExternalToolsData().getRootGroupId();
+
+            WorkSpace commonWorkspace = project.getWorkSpaces().stream().filter(
+                WorkSpace::getIsCommon
+            ).findFirst().orElseThrow(() -> new NotFoundException("Common workspace not found"));
+
+            Flux<Boolean> domainSubgroups = Flux.fromIterable(project.getWorkSpaces())
+                .filter(workSpace -> !workSpace.getIsCommon())
+                .flatMap(workSpace -> createSubgroupPair(workSpace, userId, parentGroupId), maxConcurrency);
+
+            return createSubgroupPair(commonWorkspace, userId, parentGroupId)
+                .flatMap(created -> created ? allSucceeded(domainSubgroups) : Mono.just(false));
+        });
+    }
+
+    @Override
+    public Mono<Boolean> addGitlabProjectUsers(Long projectId, long userId) {
+        return blocking(() -> desiredProjectMembership(projectId))
+            .flatMap(membership -> accessToken(userId)
+                .flatMap(token -> allSucceeded(Flux.fromStream(Arrays.stream(membership.members().toArray()).boxed())
+                    .flatMap(member -> gitlabApiClient.addProjectMember(token, membership.sourceId(), member, membership.accessLevel(member))
+                        .thenReturn(true), maxConcurrency))));
+    }
+
+    @Override
+    public Mono<Boolean> addGitlabSubgroupsUsers(Long projectId, long userId) {
+        return blocking(() -> desiredSubgroupMemberships(projectId))
+            .flatMap(memberships -> accessToken(userId)
+                .flatMap(token -> allSucceeded(Flux.fromIterable(memberships)
+                    .flatMap(membership -> Flux.fromStream(Arrays.stream(membership.members().toArray()).boxed())
+                        .map(member -> gitlabApiClient.addGroupMember(token, membership.sourceId(), member, membership.accessLevel(member))
+                            .thenReturn(true)))
+                    .flatMap(Function.identity(), maxConcurrency))));
+    }
+
+    @Override
+    public Mono<Boolean> addGitlabDeployKey(Long projectId, long userId) {
+        return blocking(() -> {
+            String publicKey = readOrCreateDeployKey();
+            if (publicKey == null) {
+                return Optional.<DeployKey>empty();
+            }
+            return Optional.of(new DeployKey(findGitlabProjectId(projectId), publicKey));
+        }).flatMap(deployKey -> {
+            if (deployKey.isEmpty()) {
+                return Mono.just(false);
+            }
+            return accessToken(userId)
+                .flatMap(token -> gitlabApiClient.addDeployKey(token, deployKey.get().projectIdInGitlab(), "mdcpps_epm", deployKey.get().publicKey(), true))
+                .thenReturn(true);
+        });
+    }
+
+    @Override
+    public Mono<Boolean> resetGitlabProject(Long projectId, long userId) {
+        // The stored GitLab ids are removed in one transaction, only the GitLab calls afterwards run reactively
+        return blocking(() -> this.transactionTemplate.execute(status -> {
+            Project project = this.projectRepository.findWithWorkspacesById(projectId)
+                .orElseThrow(() -> new NotFoundException("Project not found"));
+
+            List<GitlabProject> gitlabProject = this.gitlabProjectRepository.findByProjectId(projectId);
+            this.gitlabProjectRepository.deleteAll(gitlabProject);
+            project.setGitlabProject(null);
+
+            this.gitlabProjectRepository.flush();
+
+            Set<WorkSpace> workSpaces = project.getWorkSpaces();
+            for (WorkSpace workSpace : workSpaces) {
+                // Cleared in place, the managed collection removes its orphans
+                Set<GitlabSubgroup> gitlabSubgroup = workSpace.getGitlabSubgroups();
+                this.gitlabSubgroupRepository.deleteAll(gitlabSubgroup);
+                gitlabSubgroup.clear();
+            }
+
+            this.projectRepository.save(project);
+
+            return project.getExternalToolsData();
+        })).flatMap(externalToolsData -> accessToken(userId).flatMap(token -> {
+            Long rootGroupId = externalToolsData.getRootGroupId();
+            Long creatorUserId = externalToolsData.getCreatorUserId();
+
+            // All lists are read completely before anything is deleted, deleting while paging would skip entries
+            return Mono.zip(
+                gitlabApiClient.listGroupProjects(token, rootGroupId).map(GitlabProjectResponse::id).collectList(),
+                gitlabApiClient.listSubgroups(token, rootGroupId).map(GitlabGroupResponse::id).collectList(),
+                gitlabApiClient.listBillableMembers(token, rootGroupId).map(GitlabMemberResponse::id).collectList()
+            ).flatMap(lists -> Flux.fromIterable(lists.getT1())
+                .flatMap(subproject -> gitlabApiClient.deleteProject(token, subproject), maxConcurrency)
+                .thenMany(Flux.fromIterable(lists.getT2())
+                    .flatMap(subgroup -> gitlabApiClient.deleteGroup(token, subgroup), maxConcurrency))
+                .then(allSucceeded(Flux.fromIterable(lists.getT3())
+                    .filter(member -> !member.equals(creatorUserId))
+                    .flatMap(member -> removeBillableMember(token, rootGroupId, member), maxConcurrency))));
+        }));
+    }
+
+    /**
+     * Removes a billable member of the root group. A failure is logged and reported as false, the remaining members
+     * are still removed.
+     */
+    private Mono<Boolean> removeBillableMember(String token, long rootGroupId, long member) {
+        log.info("Removing billable member: " + member);
+        return gitlabApiClient.removeBillableMember(token, rootGroupId, member)
+            .thenReturn(true)
+            .onErrorResume(WebClientResponseException.class, e -> {
+                log.error("Error removing billable member {} from group {}: {}", member, rootGroupId, e.getStatusCode());
+                return Mono.just(false);
+            });
+    }
+
+    @Override
+    public Mono<String> getGitlabUrl(Long groupId, long userId) {
+        return accessToken(userId)
+            .flatMap(token -> gitlabApiClient.getGroup(token, groupId))
+            .mapNotNull(GitlabGroupResponse::webUrl)
+            .defaultIfEmpty("");
+    }
+
+    @Override
+    public Mono<String> getRootGroupUrl(Long projectId, long userId) {
+        return findProject(projectId)
+            .flatMap(project -> accessToken(userId)
+                .flatMap(token -> gitlabApiClient.getGroup(token, project.getExternalToolsData().getRootGroupId())))
+            .mapNotNull(GitlabGroupResponse::path)
+            .defaultIfEmpty("");
+    }
+
+    @Override
+    public Mono<String> getProjectUrl(Long projectId, long userId) {
+        return findProject(projectId)
+            .flatMap(project -> accessToken(userId)
+                .flatMap(token -> gitlabApiClient.getProject(token, project.getGitlabProject().getGitlabId())))
+            .mapNotNull(GitlabProjectResponse::name)
+            .defaultIfEmpty("");
+    }
+
+    @Override
+    public Mono<Boolean> uploadRepositoryFiles(Long projectId, FileTree files, long userId) {
+        if (uploadMode == UploadMode.COMMIT_API) {
+            return commitRepositoryFiles(projectId, files, userId)
+                .flatMap(result -> result == GitlabCommitUploader.Result.TOO_LARGE
+                    ? pushInitialRepositoryFiles(projectId, files, userId)
+                    : Mono.just(true))
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    log.error("Error committing files through the GitLab API", e);
+                    return Mono.just(false);
+                });
+        }
+        return pushInitialRepositoryFiles(projectId, files, userId);
+    }
+
+    @Override
+    public Mono<RepositoryUpdateResult> updateRepositoryFiles(Long projectId, RepositoryChangeSet changes, long userId) {
+        if (changes.isEmpty()) {
+            log.info("Repository of project {} is up to date, nothing to push", projectId);
+            return Mono.just(RepositoryUpdateResult.UNCHANGED);
+        }
+        log.info("Updating repository of project {}: {}", projectId, changes);
+
+        if (uploadMode == UploadMode.COMMIT_API) {
+            return commitRepositoryChanges(projectId, changes, userId)
+                .flatMap(result -> switch (result) {
+                    case TOO_LARGE -> pushRepositoryChanges(projectId, changes, userId);
+                    case UNCHANGED -> Mono.just(RepositoryUpdateResult.UNCHANGED);
+                    case COMMITTED -> Mono.just(RepositoryUpdateResult.UPDATED);
+                })
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    log.error("Error committing files through the GitLab API", e);
+                    return Mono.just(RepositoryUpdateResult.FAILED);
+                });
+        }
+        return pushRepositoryChanges(projectId, changes, userId);
+    }
+
+    private Mono<GitlabCommitUploader.Result> commitRepositoryFiles(Long projectId, FileTree files, long userId) {
+        return blocking(() -> findGitlabProjectId(projectId))
+            .flatMap(projectIdInGitlab -> accessToken(userId)
+                .flatMap(token -> gitlabCommitUploader.upload(token, projectIdInGitlab, DEFAULT_BRANCH, files, "Initial commit", true)));
+    }
+
+    private Mono<GitlabCommitUploader.Result> commitRepositoryChanges(Long projectId, RepositoryChangeSet changes, long userId) {
+        return blocking(() -> findGitlabProjectId(projectId))
+            .flatMap(projectIdInGitlab -> accessToken(userId)
+                .flatMap(token -> defaultBranch(token, projectIdInGitlab)
+                    .flatMap(branch -> gitlabCommitUploader.commit(token, projectIdInGitlab, branch, changes, "Update files"))));
+    }
+
+    @Override
+    public Mono<RemoteTree> getRepositoryTree(Long projectId, long userId) {
+        return blocking(() -> findGitlabProjectId(projectId))
+            .flatMap(projectIdInGitlab -> accessToken(userId)
+                .flatMap(token -> defaultBranch(token, projectIdInGitlab)
+                    .flatMap(branch -> gitlabApiClient.getRepositoryTree(token, projectIdInGitlab, branch))));
+    }
+
+    @Override
+    public Mono<byte[]> getRepositoryBlob(Long projectId, String blobId, long userId) {
+        return blocking(() -> findGitlabProjectId(projectId))
+            .flatMap(projectIdInGitlab -> accessToken(userId)
+                .flatMap(token -> gitlabApiClient.getRepositoryBlob(token, projectIdInGitlab, blobId)));
+    }
+
+    private Mono<String> defaultBranch(String accessToken, long projectIdInGitlab) {
+        return gitlabApiClient.getProject(accessToken, projectIdInGitlab)
+            .mapNotNull(GitlabProjectResponse::defaultBranch)
+            .defaultIfEmpty(DEFAULT_BRANCH);
+    }
+
+    /**
+     * Commits the files into a temporary bare repository and pushes them as the first commit. The repository is removed afterwards.
+     */
+    private Mono<Boolean> pushInitialRepositoryFiles(Long projectId, FileTree files, long userId) {
+        return Mono.zip(getRootGroupUrl(projectId, userId), getProjectUrl(projectId, userId))
+            .flatMap(urls -> blocking(() -> {
+                try {
+                    gitOperations.initAndPush(files, gitOperations.remoteUrl(urls.getT1(), urls.getT2()), "Initial commit");
+                    return true;
+                } catch (GitOperationException e) {
+                    log.error("Error pushing files to git", e);
+                    return false;
+                }
+            }));
+    }
+
+    /**
+     * Writes only the changed files into the cached mirror of the repository and pushes them.
+     * The mirror may already hold the changes when it is ahead of the tree the change set was planned against.
+     */
+    private Mono<RepositoryUpdateResult> pushRepositoryChanges(Long projectId, RepositoryChangeSet changes, long userId) {
+        // Verify if the private key exists
+        Mono<Boolean> deployKey = new File(privateKeyPath).exists()
+            ? Mono.just(true)
+            : addGitlabDeployKey(projectId, userId);
+
+        return deployKey.then(Mono.zip(getRootGroupUrl(projectId, userId), getProjectUrl(projectId, userId)))
+            .flatMap(urls -> blocking(() -> {
+                try {
+                    return gitMirrorCache.withMirror(findGitlabProjectId(projectId), gitOperations.remoteUrl(urls.getT1(), urls.getT2()), workTree -> {
+                        changes.writeTo(workTree);
+                        return gitOperations.commitAndPush(workTree, "Update files")
+                            ? RepositoryUpdateResult.UPDATED
+                            : RepositoryUpdateResult.UNCHANGED;
+                    });
+                } catch (GitOperationException | IOException e) {
+                    log.error("Error pushing files to git", e);
+                    return RepositoryUpdateResult.FAILED;
+                }
+            }));
+    }
+
+    @Override
+    public Mono<Boolean> createGitlabProjectLabels(Long projectId, long userId) {
+        return blocking(() -> findGitlabProjectId(projectId))
+            .flatMap(projectIdInGitlab -> accessToken(userId)
+                .flatMapMany(token -> Flux.range(0, LABELS.size())
+                    .flatMap(i -> gitlabApiClient.createLabel(token, projectIdInGitlab, LABELS.get(i), LABEL_COLORS.get(i)), maxConcurrency))
+                .then(Mono.just(true)));
+    }
+
+    @Override
+    public Mono<Boolean> createOnlyNewGitlabSubgroups(Long projectId, long userId) {
+        return findProjectWithWorkspaces(projectId).flatMap(project -> {
+            Long parentGroupId = project.getExternalToolsData().getRootGroupId();
+
+            return allSucceeded(Flux.fromIterable(project.getWorkSpaces())
+                .filter(workSpace -> !workSpace.getIsCommon() && workSpace.getGitlabSubgroups().isEmpty())
+                .flatMap(workSpace -> {
+                    log.info("Creating subgroups for workspace: " + workSpace.getName());
+                    return createSubgroupPair(workSpace, userId, parentGroupId);
+                }, maxConcurrency));
+        });
+    }
+
+    @Override
+    public Mono<Boolean> editGitlabProjectUsers(Long projectId, long userId) {
+        return blocking(() -> desiredProjectMembership(projectId))
+            .flatMap(membership -> accessToken(userId)
+                .flatMap(token -> gitlabApiClient.listProjectMembers(token, membership.sourceId()).collectList()
+                    .flatMap(actual -> applyChanges(token, membership, diffMembership(membership, actual), true))));
+    }
+
+    @Override
+    public Mono<Boolean> editGitlabSubgroupsUsers(Long projectId, long userId) {
+        return blocking(() -> desiredSubgroupMemberships(projectId))
+            .flatMap(memberships -> accessToken(userId)
+                .flatMap(token -> allSucceeded(Flux.fromIterable(memberships)
+                    .flatMap(membership -> gitlabApiClient.listGroupMembers(token, membership.sourceId()).collectList()
+                        .flatMap(actual -> applyChanges(token, membership, diffMembership(membership, actual), false)), maxConcurrency))));
+    }
+
+    /**
+     * Collects who should be a member of the GitLab project: everyone with project access except the creator,
+     * who owns the root group already.
+     */
+    private Membership desiredProjectMembership(Long projectId) {
+        Project project = this.projectRepository.findWithMembersById(projectId)
+            .orElseThrow(() -> new NotFoundException("Project not found"));
+
+        Membership membership = new Membership(findGitlabProjectId(projectId), project.getExternalToolsData().getCreatorUserId());
+        for (ProjectUserAccess projectUserAccess : project.getProjectUserAccesses()) {
+            membership.grant(projectUserAccess.getUser().getGitlabId(), projectUserAccess.getIsAdmin());
+        }
+        return membership;
+    }
+
+    /**
+     * Collects who should be a member of each workspace subgroup: all workspace users in the regular subgroup,
+     * only the reviewers among them in the reviewer subgroup.
+     */
+    private List<Membership> desiredSubgroupMemberships(Long projectId) {
+        Project project = this.projectRepository.findWithMembersById(projectId)
+            .orElseThrow(() -> new NotFoundException("Project not found"));
+
+        Long creatorUserId = project.getExternalToolsData().getCreatorUserId();
+
+        List<Membership> memberships = new ArrayList<>();
+        for (WorkSpace workSpace : project.getWorkSpaces()) {
+            Membership membership = new Membership(findSubgroup(workSpace, false).getGitlabId(), creatorUserId);
+            Membership reviewerMembership = new Membership(findSubgroup(workSpace, true).getGitlabId(), creatorUserId);
+
+            for (User user : workSpace.getUsers()) {
+                ProjectUserAccess projectUserAccess = project.getProjectUserAccesses().stream()
+                    .filter(access -> access.getUser().getId().equals(user.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("User not found in project access list"));
+
+                membership.grant(user.getGitlabId(), projectUserAccess.getIsAdmin());
+                if (projectUserAccess.getIsReviewer()) {
+                    reviewerMembership.grant(user.getGitlabId(), projectUserAccess.getIsAdmin());
+                }
+            }
+            memberships.add(membership);
+            memberships.add(reviewerMembership);
+        }
+        return memberships;
+    }
+
+    /**
+     * Compares the desired with the actual direct members. The creator is never touched.
+     */
+    private static MembershipChanges diffMembership(Membership desired, List<GitlabMemberResponse> actual) {
+        LongHashSet present = new LongHashSet(actual.size());
+        LongHashSet updates = new LongHashSet();
+        LongHashSet removals = new LongHashSet();
+
+        for (GitlabMemberResponse member : actual) {
+            long memberId = member.id();
+            if (desired.isCreator(memberId)) {
+                continue;
+            }
+            if (!desired.members().contains(memberId)) {
+                removals.add(memberId);
+                continue;
+            }
+            present.add(memberId);
+            if (member.accessLevel() == null || member.accessLevel() != desired.accessLevel(memberId)) {
+                updates.add(memberId);
+            }
+        }
+
+        LongHashSet additions = new LongHashSet();
+        desired.members().forEach(memberId -> {
+            if (!present.contains(memberId)) {
+                additions.add(memberId);
+            }
+        });
+        return new MembershipChanges(additions, updates, removals);
+    }
+
+    private Mono<Boolean> applyChanges(String token, Membership membership, MembershipChanges changes, boolean isProject) {
+        long sourceId = membership.sourceId();
+        log.info("Syncing members of {} {}: {} to add, {} to update, {} to remove", isProject ? "project" : "group", sourceId,
+            changes.additions().size(), changes.updates().size(), changes.removals().size());
+
+        Flux<Mono<Void>> calls = Flux.concat(
+            Flux.fromStream(Arrays.stream(changes.additions().toArray()).boxed()).map(member -> isProject
+                ? gitlabApiClient.addProjectMember(token, sourceId, member, membership.accessLevel(member))
+                : gitlabApiClient.addGroupMember(token, sourceId, member, membership.accessLevel(member))),
+            Flux.fromStream(Arrays.stream(changes.updates().toArray()).boxed()).map(member -> isProject
+                ? gitlabApiClient.updateProjectMember(token, sourceId, member, membership.accessLevel(member))
+                : gitlabApiClient.updateGroupMember(token, sourceId, member, membership.accessLevel(member))),
+            Flux.fromStream(Arrays.stream(changes.removals().toArray()).boxed()).map(member -> isProject
+                ? gitlabApiClient.removeProjectMember(token, sourceId, member)
+                : gitlabApiClient.removeGroupMember(token, sourceId, member)));
+
+        return calls.flatMap(Function.identity(), maxConcurrency).then(Mono.just(true));
+    }
+
+    private Mono<Boolean> createSubgroupPair(WorkSpace workSpace, long userId, long parentId) {
+        return Mono.zip(
+            createGitlabSubgroup(false, workSpace, workSpace.getName(), userId, parentId),
+            createGitlabSubgroup(true, workSpace, workSpace.getName() + "_reviewers", userId, parentId),
+            (created, reviewersCreated) -> created && reviewersCreated);
+    }
+
+    private Mono<Boolean> createGitlabSubgroup(boolean isReviewerGroup, WorkSpace workSpace, String groupName, long userId, long parentId) {
+        String slug = SlugUtil.createSlug(groupName);
+
+        return accessToken(userId)
+            .flatMap(token -> gitlabApiClient.createSubgroup(token, slug, slug, parentId))
+            .flatMap(response -> {
+                if (response.id() == null) {
+                    log.error("Unexpected response when creating Gitlab subgroup: {}", response);
+                    return Mono.just(false);
+                }
+                return blocking(() -> {
+                    GitlabSubgroup gitlabSubgroup = GitlabSubgroup.builder()
+                        .workspace(workSpace)
+                        .gitlabId(response.id())
+                        .isReviewerGroup(isReviewerGroup)
+                        .build();
+                    this.gitlabSubgroupRepository.save(gitlabSubgroup);
+                    return true;
+                });
+            })
+            .defaultIfEmpty(false);
+    }
+
+    private static GitlabSubgroup findSubgroup(WorkSpace workSpace, boolean reviewerGroup) {
+        return workSpace.getGitlabSubgroups().stream()
+            .filter(subgroup -> Boolean.valueOf(reviewerGroup).equals(subgroup.getIsReviewerGroup()))
+            .findFirst()
+            .orElseThrow(() -> new NotFoundException("Gitlab subgroup not found"));
+    }
+
+    private Mono<String> accessToken(long userId) {
+        return blocking(() -> this.userService.getValidAccessToken(userId));
+    }
+
+    private Mono<Project> findProject(Long projectId) {
+        return blocking(() -> this.projectRepository.findWithGitlabDataById(projectId)
+            .orElseThrow(() -> new NotFoundException("Project not found")));
+    }
+
+    private Mono<Project> findProjectWithWorkspaces(Long projectId) {
+        return blocking(() -> this.projectRepository.findWithWorkspacesById(projectId)
+            .orElseThrow(() -> new NotFoundException("Project not found")));
+    }
+
+    private Long findGitlabProjectId(Long projectId) {
+        return this.gitlabProjectRepository.findByProjectId(projectId)
+            .stream().findFirst()
+            .orElseThrow(() -> new NotFoundException("Gitlab project not found")).getGitlabId();
+    }
+
+    /**
+     * Runs repository and other blocking calls on the bounded elastic scheduler, never on a reactor-netty thread.
+     */
+    private static <T> Mono<T> blocking(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Mono<Boolean> allSucceeded(Flux<Boolean> results) {
+        return results.all(Boolean::booleanValue);
+    }
+
+    /**
+     * Creates the deploy key "id_rsa_mdcpps_epm" if it is not present on the local machine.
+     *
+     * @return the public key, or null if it could not be created or read
+     */
+    private String readOrCreateDeployKey() {
+        String publicKeyPath = privateKeyPath + ".pub";
+
+        if (!new File(privateKeyPath).exists() || !new File(publicKeyPath).exists()) {
+            try {
+                ProcessBuilder processBuilder = new ProcessBuilder(
+                    "ssh-keygen",
+                    "-t", "rsa",
+                    "-b", "4096",
+                    "-f", privateKeyPath,
+                    "-N", ""
+                );
+                processBuilder.redirectErrorStream(true);
+                processBuilder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+                Process process = processBuilder.start();
+                if (!process.waitFor(KEY_GENERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    log.error("Generating SSH key timed out");
+                    return null;
+                }
+                if (process.exitValue() != 0) {
+                    log.error("Generating SSH key failed with exit code {}", process.exitValue());
+                    return null;
+                }
+            } catch (IOException | InterruptedException e) {
+                log.error("Error generating SSH key", e);
+                return null;
+            }
+        } else {
+            log.info("SSH key already exists");
+        }
+
+        try {
+            return new String(Files.readAllBytes(Paths.get(publicKeyPath)));
+        } catch (IOException e) {
+            log.error("Error reading public key", e);
+            return null;
+        }
+    }
+
+    /**
+     * Desired members of a GitLab project or group, split by access level.
+     */
+    private record Membership(long sourceId, Long creatorUserId, LongHashSet members, LongHashSet maintainers) {
+
+        Membership(long sourceId, Long creatorUserId) {
+            this(sourceId, creatorUserId, new LongHashSet(), new LongHashSet());
+        }
+
+        void grant(long gitlabUserId, boolean isAdmin) {
+            if (isCreator(gitlabUserId)) {
+                return;
+            }
+            members.add(gitlabUserId);
+            if (isAdmin) {
+                maintainers.add(gitlabUserId);
+            }
+        }
+
+        boolean isCreator(long gitlabUserId) {
+            return creatorUserId != null && creatorUserId == gitlabUserId;
+        }
+
+        int accessLevel(long gitlabUserId) {
+            return maintainers.contains(gitlabUserId) ? GitlabApiClient.MAINTAINER_ACCESS : GitlabApiClient.DEVELOPER_ACCESS;
+        }
+    }
+
+    private record MembershipChanges(LongHashSet additions, LongHashSet updates, LongHashSet removals) {
+    }
+
+    private record DeployKey(Long projectIdInGitlab, String publicKey) {
+    }
+}
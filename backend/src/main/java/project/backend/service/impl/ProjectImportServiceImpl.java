@@ -0,0 +1,221 @@
+package project.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.backend.dto.CppsProjectDto;
+import project.backend.dto.CppsProjectJSONExportDto;
+import project.backend.dto.ProjectImportResultDto;
+import project.backend.dto.ValidationErrorDto;
+import project.backend.exception.ValidationException;
+import project.backend.service.ProjectImportService;
+import project.backend.service.ProjectService;
+import project.backend.service.validator.ProjectValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Service
+@Slf4j
+public class ProjectImportServiceImpl implements ProjectImportService {
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ProjectService projectService;
+    private final ProjectValidator projectValidator;
+    private final int batchSize;
+
+    public ProjectImportServiceImpl(ObjectMapper objectMapper,
+                                    TransactionTemplate transactionTemplate,
+                                    ProjectService projectService,
+                                    ProjectValidator projectValidator,
+                                    @Value("${project.import.batch-size}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.projectService = projectService;
+        this.projectValidator = projectValidator;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void importProjects(InputStream in, OutputStream out, Principal principal) throws IOException {
+        // Failed documents wait in the batch as well, so the results are written in the order of the input
+        List<ImportDocument> batch = new ArrayList<>(batchSize);
+        int documents = 0;
+        int imported = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            while (true) {
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                } catch (JsonProcessingException e) {
+                    batch.add(malformed(parser.getCurrentLocation().getLineNr(), e));
+                    documents++;
+                    break;
+                }
+                if (token == null) {
+                    break;
+                }
+
+                int line = parser.getTokenLocation().getLineNr();
+                documents++;
+
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    batch.add(ImportDocument.failed(failure(line, null, List.of("Expected a project object"))));
+                } else {
+                    try {
+                        batch.add(validate(objectMapper.readValue(parser, CppsProjectJSONExportDto.class), line));
+                    } catch (DatabindException e) {
+                        batch.add(ImportDocument.failed(failure(line, null, List.of("Invalid project document: " + e.getOriginalMessage()))));
+                        skipRestOfDocument(parser);
+                    } catch (JsonProcessingException e) {
+                        // The parser cannot find the start of the next document after malformed JSON
+                        batch.add(malformed(line, e));
+                        break;
+                    }
+                }
+
+                if (batch.size() >= batchSize) {
+                    imported += persistBatch(batch, out, principal);
+                    batch.clear();
+                }
+            }
+        }
+
+        imported += persistBatch(batch, out, principal);
+        out.flush();
+
+        log.info("Bulk import finished, {} of {} projects imported", imported, documents);
+    }
+
+    /**
+     * Validates one document before it joins a batch, the returned document carries the failure if it cannot be imported.
+     * This is the only validation, the batch persists the documents without validating them again.
+     */
+    private ImportDocument validate(CppsProjectJSONExportDto projectDto, int line) {
+        try {
+            projectValidator.validateImportedProject(projectDto);
+        } catch (ValidationException e) {
+            List<String> errors = new ArrayList<>();
+            for (ValidationErrorDto error : e.getValidationErrorRestDto().getErrors()) {
+                errors.add(error.getMessage());
+            }
+            return ImportDocument.failed(failure(line, projectDto.getName(), errors));
+        }
+
+        return new ImportDocument(line, projectDto, null);
+    }
+
+    /**
+     * Moves the parser past the end of the document whose binding failed, so the next document can be read.
+     */
+    private static void skipRestOfDocument(JsonParser parser) throws IOException {
+        while (!parser.getParsingContext().inRoot()) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Persists the valid projects of a batch in one transaction and writes the results of the whole batch. If any project
+     * fails, the transaction is rolled back and the projects are imported again one transaction each, so a single broken
+     * document only costs its own import.
+     *
+     * @return the number of imported projects
+     */
+    private int persistBatch(List<ImportDocument> batch, OutputStream out, Principal principal) throws IOException {
+        List<ImportDocument> projects = batch.stream().filter(document -> document.failure() == null).toList();
+
+        List<ProjectImportResultDto> projectResults = new ArrayList<>(projects.size());
+        if (!projects.isEmpty()) {
+            try {
+                projectResults = transactionTemplate.execute(status -> {
+                    List<ProjectImportResultDto> results = new ArrayList<>(projects.size());
+                    for (ImportDocument document : projects) {
+                        results.add(importDocument(document, principal));
+                    }
+                    return results;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Import batch starting at line {} failed, importing its projects one by one: {}", projects.get(0).line(), e.getMessage());
+                projectResults = new ArrayList<>(projects.size());
+                for (ImportDocument document : projects) {
+                    projectResults.add(importDocumentAlone(document, principal));
+                }
+            }
+        }
+
+        int imported = 0;
+        Iterator<ProjectImportResultDto> results = projectResults.iterator();
+        for (ImportDocument document : batch) {
+            ProjectImportResultDto result = document.failure() != null ? document.failure() : results.next();
+            writeResult(out, result);
+            if (result.isSuccess()) {
+                imported++;
+            }
+        }
+        out.flush();
+        return imported;
+    }
+
+    private ProjectImportResultDto importDocumentAlone(ImportDocument document, Principal principal) {
+        try {
+            return transactionTemplate.execute(status -> importDocument(document, principal));
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return failure(document.line(), document.project().getName(), List.of(message));
+        }
+    }
+
+    private ProjectImportResultDto importDocument(ImportDocument document, Principal principal) {
+        CppsProjectDto project = projectService.importValidatedProject(document.project(), principal);
+        return ProjectImportResultDto.builder()
+            .line(document.line())
+            .success(true)
+            .projectId(project.getId())
+            .name(document.project().getName())
+            .build();
+    }
+
+    private void writeResult(OutputStream out, ProjectImportResultDto result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    private static ImportDocument malformed(int line, JsonProcessingException e) {
+        return ImportDocument.failed(failure(line, null, List.of("Malformed JSON, import stopped: " + e.getOriginalMessage())));
+    }
+
+    private static ProjectImportResultDto failure(int line, String name, List<String> errors) {
+        return ProjectImportResultDto.builder()
+            .line(line)
+            .success(false)
+            .name(name)
+            .errors(errors)
+            .build();
+    }
+
+    /**
+     * A document waiting for its batch, either a project to import or the failure to report for it.
+     */
+    private record ImportDocument(int line, CppsProjectJSONExportDto project, ProjectImportResultDto failure) {
+
+        static ImportDocument failed(ProjectImportResultDto failure) {
+            return new ImportDocument(failure.getLine(), null, failure);
+        }
+    }
+}
@@ -6,17 +6,24 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import project.backend.dto.*;
 import project.backend.entity.*;
+import project.backend.enums.RepositoryUpdateResult;
 import project.backend.exception.AccessForbiddenException;
 import project.backend.exception.NotFoundException;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RemoteTree;
+import project.backend.filetree.RepositoryChangeSet;
 import project.backend.mapper.ProjectMapper;
 import project.backend.repository.*;
+import project.backend.service.BuildPipelineService;
 import project.backend.service.ExampleService;
 import project.backend.service.FileGenerationService;
 import project.backend.service.GitlabService;
 import project.backend.service.ProjectService;
 import project.backend.service.validator.ProjectValidator;
+import project.backend.util.SlugUtil;
 
 import java.io.File;
 import java.security.Principal;
@@ -35,6 +42,7 @@ public class ProjectServiceImpl implements ProjectService {
     private final ExternalToolsDataRepository externalToolsDataRepository;
     private final GitlabService gitlabService;
     private final FileGenerationService fileGenerationService;
+    private final BuildPipelineService buildPipelineService;
 
     private final String secretKey = "SECretKEySECretKEySECretKEySECretKEySECretKEySECretKEySECretKEySECretKEy";  // Same as used in token generation
 
@@ -98,28 +106,21 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     public List<CppsProjectListItemDto> getProjects(Principal principal) {
 
-        List<ProjectUserAccess> projectUserAccesses =
-            this.projectUserAccessRepository.findByUserId(Long.parseLong(principal.getName()));
+        List<ProjectListItemView> projectListItems =
+            this.projectUserAccessRepository.findProjectListByUserId(Long.parseLong(principal.getName()));
 
-        if (projectUserAccesses != null) {
-            List<CppsProjectListItemDto> projects = new ArrayList<>();
-
-            for (ProjectUserAccess projectUserAccess : projectUserAccesses) {
-                projects.add(
-                    this.projectMapper.mapProjectUserAccessEntityToProjectListItemDto(projectUserAccess)
-                );
-            }
-
-            return projects;
+        List<CppsProjectListItemDto> projects = new ArrayList<>(projectListItems.size());
+        for (ProjectListItemView projectListItem : projectListItems) {
+            projects.add(this.projectMapper.mapProjectListItemViewToProjectListItemDto(projectListItem));
         }
 
-        return List.of();
+        return projects;
     }
 
     @Override
     public CppsProjectDto getProject(Long projectId, Principal principal) {
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findDetailById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         if (project.getProjectUserAccesses().stream()
@@ -153,7 +154,7 @@ public class ProjectServiceImpl implements ProjectService {
             throw new AccessForbiddenException("Access to project denied, user does not have access");
         }
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findForExportById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         return this.projectMapper.mapProjectEntityToCppsProjectJSONExportDto(project);
@@ -182,7 +183,7 @@ public class ProjectServiceImpl implements ProjectService {
             throw new AccessForbiddenException("Access to project denied, user does not have access");
         }
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findForExportById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         return this.projectMapper.mapProjectEntityToCppsProjectJSONExportDtoAnonymized(project);
@@ -192,8 +193,9 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional
     public void deleteProject(Long projectId, Principal principal) {
 
-        this.projectRepository.findById(projectId)
-            .orElseThrow(() -> new NotFoundException("Project not found"));
+        if (!this.projectRepository.existsById(projectId)) {
+            throw new NotFoundException("Project not found");
+        }
 
         boolean hasAccess = this.projectUserAccessRepository.hasAdminAccessToProject(Long.parseLong(principal.getName()), projectId);
         if (!hasAccess) {
@@ -207,7 +209,7 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     public CppsProjectDto updateProject(Long projectId, CppsProjectDto projectDto, Principal principal) {
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findDetailById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         boolean hasAccess = this.projectUserAccessRepository.hasAdminAccessToProject(Long.parseLong(principal.getName()), projectId);
@@ -222,6 +224,15 @@ public class ProjectServiceImpl implements ProjectService {
         return this.projectMapper.mapEntityToProjectDto(updatedProject);
     }
 
+    @Override
+    public BuildPipelineResponseDto buildGitlabInfrastructure(Long projectId, Principal principal) {
+        this.hasBuildAccess(projectId, principal);
+
+        long userId = Long.parseLong(principal.getName());
+
+        return this.buildPipelineService.buildGitlabInfrastructure(projectId, userId);
+    }
+
     @Override
     public BuildResponseDto buildGitlabProject(Long projectId, Principal principal) {
         this.hasBuildAccess(projectId, principal);
@@ -349,14 +360,14 @@ public class ProjectServiceImpl implements ProjectService {
 
         long userId = Long.parseLong(principal.getName());
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findForExportById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
-        String tempDirectoryId = this.fileGenerationService.generateFileStructure(project);
+        FileTree files = this.fileGenerationService.generateFileTree(project);
 
-        log.info("Temp directory created: {}", tempDirectoryId);
+        log.info("Repository files generated: {}", files);
 
-        if (!gitlabService.uploadRepositoryFiles(projectId, tempDirectoryId, userId)) {
+        if (!gitlabService.uploadRepositoryFiles(projectId, files, userId)) {
             return BuildResponseDto.builder()
                 .success(false)
                 .message("Gitlab repository files generation and upload failed")
@@ -455,14 +466,34 @@ public class ProjectServiceImpl implements ProjectService {
 
         long userId = Long.parseLong(principal.getName());
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findForExportById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
-        String tempDirectoryId = this.fileGenerationService.updateFileStructure(project, userId);
+        RepositoryChangeSet changes;
+        try {
+            RemoteTree repository = this.gitlabService.getRepositoryTree(projectId, userId);
+            changes = this.fileGenerationService.planRepositoryUpdate(repository, project);
+        } catch (WebClientResponseException e) {
+            log.error("Error reading GitLab repository tree", e);
+            return BuildResponseDto.builder()
+                .success(false)
+                .message("Gitlab repository files update and upload failed")
+                .build();
+        }
 
-        log.info("Temp directory created: {}", tempDirectoryId);
+        // The change set is planned against the tree read above, the push can still find the repository up to date
+        RepositoryUpdateResult result = changes.isEmpty()
+            ? RepositoryUpdateResult.UNCHANGED
+            : gitlabService.updateRepositoryFiles(projectId, changes, userId);
 
-        if (!gitlabService.updateRepositoryFiles(projectId, tempDirectoryId, userId)) {
+        if (result == RepositoryUpdateResult.UNCHANGED) {
+            return BuildResponseDto.builder()
+                .success(true)
+                .message("Gitlab repository files are up to date, no changes")
+                .build();
+        }
+
+        if (result == RepositoryUpdateResult.FAILED) {
             return BuildResponseDto.builder()
                 .success(false)
                 .message("Gitlab repository files update and upload failed")
@@ -480,7 +511,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         long userId = Long.parseLong(principal.getName());
 
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findWithGitlabDataById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         Long rootGroupId = project.getExternalToolsData().getRootGroupId();
@@ -490,7 +521,13 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     public CppsProjectDto importProject(CppsProjectJSONExportDto projectDto, Principal principal) {
-        // TODO: Implement validation
+        this.projectValidator.validateImportedProject(projectDto);
+
+        return importValidatedProject(projectDto, principal);
+    }
+
+    @Override
+    public CppsProjectDto importValidatedProject(CppsProjectJSONExportDto projectDto, Principal principal) {
         Long requesterId = Long.parseLong(principal.getName());
 
         Project project = this.projectMapper.mapExportDtoToEntityForCreationAndPersist(projectDto, requesterId);
@@ -514,7 +551,7 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     public BuildResponseDto performFileConsistencyCheck(Long projectId, Principal principal) {
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findForExportById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         if (project.getGitlabProject().getGitlabId() == null) {
@@ -545,8 +582,28 @@ public class ProjectServiceImpl implements ProjectService {
             .build();
     }
 
+    @Override
+    public GeneratedRepositoryDto generateRepositoryFiles(Long projectId, Principal principal) {
+        boolean hasAccess = this.projectUserAccessRepository.hasAccessToProject(Long.parseLong(principal.getName()), projectId);
+        if (!hasAccess) {
+            throw new AccessForbiddenException("Access to project denied, user does not have access");
+        }
+
+        Project project = this.projectRepository.findForExportById(projectId)
+            .orElseThrow(() -> new NotFoundException("Project not found"));
+
+        FileTree files = this.fileGenerationService.generateFileTree(project);
+
+        log.info("Repository files generated for download: {}", files);
+
+        return GeneratedRepositoryDto.builder()
+            .name(SlugUtil.createSlug(project.getName()))
+            .files(files)
+            .build();
+    }
+
     private void hasBuildAccess(Long projectId, Principal principal) {
-        Project project = this.projectRepository.findById(projectId)
+        Project project = this.projectRepository.findWithAccessesById(projectId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
 
         User user = project.getProjectUserAccesses().stream()
@@ -1,7 +1,5 @@
 package project.backend.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,12 +7,14 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import project.backend.client.dto.GitlabTokenResponse;
+import project.backend.client.dto.GitlabUserResponse;
 import project.backend.dto.UserDto;
 import project.backend.entity.User;
 import project.backend.exception.NotFoundException;
@@ -23,6 +23,9 @@ import project.backend.service.UserService;
 import project.backend.repository.UserRepository;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
@@ -43,9 +46,16 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
-    private final String userGetByGitlabIdUrl = "https://gitlab.com/api/v4/users/";
+    @Value("${gitlab.base-url}/api/v4/users/")
+    private String userGetByGitlabIdUrl;
+
+    // Access token and expiration time per user id, kept in sync by updateGitlabAuthData
+    private final Map<Long, CachedAccessToken> accessTokenCache = new ConcurrentHashMap<>();
+
+    // Token refresh currently running per user id, concurrent callers wait for it instead of refreshing again
+    private final Map<Long, CompletableFuture<CachedAccessToken>> inFlightRefreshes = new ConcurrentHashMap<>();
 
     @Override
     public Long create_user(long gitLabId, String gitLabUsername, String email, String avatarUrl) {
@@ -112,6 +122,7 @@ public class UserServiceImpl implements UserService {
             userToUpdate.setRefreshToken(refreshToken);
             userToUpdate.setExpirationTime(expirationTime);
             userRepository.save(userToUpdate);
+            accessTokenCache.put(userId, new CachedAccessToken(accessToken, expirationTime));
         } else {
             throw new NotFoundException("User not found");
         }
@@ -150,48 +161,71 @@ public class UserServiceImpl implements UserService {
 
     private UserDto getUserByGitlabId(long gitlabId, long requesterId) {
 
-        boolean validToken = this.checkForNonExpiredToken(requesterId);
-
-        if (!validToken) {
-            this.refreshGitlabToken(requesterId);
-        }
-
-        String accessToken = this.getUserEntity(requesterId).getAccessToken();
+        String accessToken = this.getValidAccessToken(requesterId);
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + accessToken);
 
         HttpEntity<String> requestEntity = new HttpEntity<>(headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(userGetByGitlabIdUrl + gitlabId , HttpMethod.GET, requestEntity, String.class);
+        GitlabUserResponse response = restTemplate.exchange(userGetByGitlabIdUrl + gitlabId , HttpMethod.GET, requestEntity, GitlabUserResponse.class).getBody();
 
-        String jsonResponse = responseEntity.getBody();
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        long id = -1L;
-        String avatarUrl = null;
-        String username = null;
-
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
-            id = jsonNode.get("id").asLong();
-            avatarUrl = jsonNode.get("avatar_url").asText();
-            username = jsonNode.get("username").asText();
-        } catch (Exception e) {
-            log.error("Error parsing JSON response", e);
+        if (response == null || response.id() == null) {
+            log.error("Unexpected response when fetching Gitlab user {}: {}", gitlabId, response);
             throw new NotFoundException("User not found");
         }
 
         return UserDto.builder()
-                .gitlabId(id)
-                .gitlabUsername(username)
-                .avatarUrl(avatarUrl)
+                .gitlabId(response.id())
+                .gitlabUsername(response.username())
+                .avatarUrl(response.avatarUrl())
                 .email("")
                 .build();
     }
 
     @Override
     public void refreshGitlabToken(long userId) {
+        refreshGitlabTokenOnce(userId, false);
+    }
+
+    /**
+     * Refreshes the token of the given user, or waits for the refresh that is already running for that user.
+     * GitLab refresh tokens can only be used once, so concurrent refreshes would invalidate each other.
+     *
+     * @param onlyIfExpired skip the refresh if another caller already stored a valid token in the meantime
+     */
+    private CachedAccessToken refreshGitlabTokenOnce(long userId, boolean onlyIfExpired) {
+        CompletableFuture<CachedAccessToken> refresh = new CompletableFuture<>();
+        CompletableFuture<CachedAccessToken> inFlight = inFlightRefreshes.putIfAbsent(userId, refresh);
+        if (inFlight != null) {
+            log.debug("Waiting for running token refresh of user {}", userId);
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            CachedAccessToken current = accessTokenCache.get(userId);
+            if (!onlyIfExpired || current == null || !current.isValid()) {
+                requestNewGitlabToken(userId);
+                current = getCachedAccessToken(userId);
+            }
+            refresh.complete(current);
+            return current;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRefreshes.remove(userId, refresh);
+        }
+    }
+
+    private void requestNewGitlabToken(long userId) {
         User user = this.getUserEntity(userId);
         String refreshToken = user.getRefreshToken();
 
@@ -207,48 +241,49 @@ public class UserServiceImpl implements UserService {
 
         HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(parameters, headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(tokenURI, HttpMethod.POST, requestEntity, String.class);
-
-        String jsonResponse = responseEntity.getBody();
+        GitlabTokenResponse response = restTemplate.exchange(tokenURI, HttpMethod.POST, requestEntity, GitlabTokenResponse.class).getBody();
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        String accessToken = null;
-        refreshToken = null;
-        Integer expirationTime = null;
-
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
-            accessToken = jsonNode.get("access_token").asText();
-            refreshToken = jsonNode.get("refresh_token").asText();
-            expirationTime = jsonNode.get("created_at").asInt() + jsonNode.get("expires_in").asInt();
-        } catch (Exception e) {
-            log.error("Error parsing JSON response", e);
+        // The stored refresh token stays untouched, it may still be valid if this was only a transient failure
+        if (response == null || response.accessToken() == null || response.refreshToken() == null || response.expirationTime() == null) {
+            log.error("Unexpected response when refreshing Gitlab token for user {}", userId);
+            throw new RestClientException("GitLab returned no usable token when refreshing the token of user " + userId);
         }
 
-        this.updateGitlabAuthData(userId, accessToken, refreshToken, expirationTime);
+        this.updateGitlabAuthData(userId, response.accessToken(), response.refreshToken(), response.expirationTime());
     }
 
     @Override
     public boolean checkForNonExpiredToken(long userId) {
-        User user = this.getUserEntity(userId);
-        Integer expirationTime = user.getExpirationTime();
-        if (expirationTime != null) {
-            return expirationTime > (System.currentTimeMillis() / 1000);
+        return getCachedAccessToken(userId).isValid();
+    }
+
+    @Override
+    public String getValidAccessToken(long userId) {
+        CachedAccessToken cachedAccessToken = getCachedAccessToken(userId);
+        if (!cachedAccessToken.isValid()) {
+            cachedAccessToken = refreshGitlabTokenOnce(userId, true);
         }
-        return false;
+        return cachedAccessToken.accessToken();
+    }
+
+    private CachedAccessToken getCachedAccessToken(long userId) {
+        CachedAccessToken cachedAccessToken = accessTokenCache.get(userId);
+        if (cachedAccessToken != null) {
+            return cachedAccessToken;
+        }
+
+        User user = this.getUserEntity(userId);
+        cachedAccessToken = new CachedAccessToken(user.getAccessToken(), user.getExpirationTime());
+        // Do not overwrite a token that was stored by a concurrent update in the meantime
+        CachedAccessToken existing = accessTokenCache.putIfAbsent(userId, cachedAccessToken);
+        return existing != null ? existing : cachedAccessToken;
     }
 
     @Override
     public List<UserDto> getMatchingUsers(String usernameSubStr, long requesterId) {
 
         // Make request to Gitlab to get all users with search string
-        boolean validToken = this.checkForNonExpiredToken(requesterId);
-
-        if (!validToken) {
-            this.refreshGitlabToken(requesterId);
-        }
-
-        String accessToken = this.getUserEntity(requesterId).getAccessToken();
+        String accessToken = this.getValidAccessToken(requesterId);
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + accessToken);
@@ -260,26 +295,26 @@ public class UserServiceImpl implements UserService {
 
         HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(urlWithParams, HttpMethod.GET, requestEntity, String.class);
-
-        String jsonResponse = responseEntity.getBody();
-        ObjectMapper objectMapper = new ObjectMapper();
+        // Only the first page of search results is used, the frontend shows suggestions while typing
+        GitlabUserResponse[] response = restTemplate.exchange(urlWithParams, HttpMethod.GET, requestEntity, GitlabUserResponse[].class).getBody();
 
         List<UserDto> users = new ArrayList<>();
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
-            for (JsonNode node : jsonNode) {
-                long id = node.get("id").asLong();
-                String username = node.get("username").asText();
+        if (response != null) {
+            for (GitlabUserResponse user : response) {
                 users.add(UserDto.builder()
-                        .gitlabId(id)
-                        .gitlabUsername(username)
+                        .gitlabId(user.id())
+                        .gitlabUsername(user.username())
                         .build());
             }
-        } catch (Exception e) {
-            log.error("Error parsing JSON response", e);
         }
 
         return users;
     }
+
+    private record CachedAccessToken(String accessToken, Integer expirationTime) {
+
+        boolean isValid() {
+            return accessToken != null && expirationTime != null && expirationTime > (System.currentTimeMillis() / 1000);
+        }
+    }
 }
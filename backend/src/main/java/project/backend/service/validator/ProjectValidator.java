@@ -4,13 +4,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import project.backend.dto.CppsProjectDto;
+import project.backend.dto.CppsProjectJSONExportDto;
+import project.backend.dto.UserJSONExportDto;
 import project.backend.dto.ValidationErrorDto;
 import project.backend.dto.ValidationErrorRestDto;
+import project.backend.dto.WorkspaceJSONExportDto;
 import project.backend.exception.ValidationException;
 import project.backend.repository.UserRepository;
+import project.backend.util.LongHashSet;
+import project.backend.util.SlugUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 @Slf4j
@@ -24,6 +34,7 @@ public class ProjectValidator {
         List<String> validationErrors = new ArrayList<>();
 
         List<String> workspaceNames = new ArrayList<>();
+        LongHashSet userIds = new LongHashSet();
 
         // Validate project details
         if (projectDto.getDetails() == null) {
@@ -47,14 +58,7 @@ public class ProjectValidator {
             validationErrors.add("At least one user is required");
         } else {
             for (int i = 0; i < projectDto.getUsers().size(); i++) {
-                Long userId = projectDto.getUsers().get(i).getUser().getId();
-                if (userId == null) {
-                    validationErrors.add("User ID is required");
-                } else {
-                    if (!userRepository.existsById(userId)) {
-                        validationErrors.add("User with ID " + userId + " does not exist");
-                    }
-                }
+                collectUserId(projectDto.getUsers().get(i).getUser().getId(), userIds, validationErrors);
             }
         }
 
@@ -69,14 +73,7 @@ public class ProjectValidator {
                 validationErrors.add("At least one user is required for common workspace");
             } else {
                 for (int i = 0; i < projectDto.getCommonWorkspace().getUsers().size(); i++) {
-                    Long userId = projectDto.getCommonWorkspace().getUsers().get(i).getId();
-                    if (userId == null) {
-                        validationErrors.add("User ID is required");
-                    } else {
-                        if (!userRepository.existsById(userId)) {
-                            validationErrors.add("User with ID " + userId + " does not exist");
-                        }
-                    }
+                    collectUserId(projectDto.getCommonWorkspace().getUsers().get(i).getId(), userIds, validationErrors);
                 }
             }
             workspaceNames.add(projectDto.getCommonWorkspace().getName());
@@ -94,28 +91,16 @@ public class ProjectValidator {
                     validationErrors.add("At least one user is required for domain workspace");
                 } else {
                     for (int j = 0; j < projectDto.getDomainWorkspaces().get(i).getUsers().size(); j++) {
-                        Long userId = projectDto.getDomainWorkspaces().get(i).getUsers().get(j).getId();
-                        if (userId == null) {
-                            validationErrors.add("User ID is required");
-                        } else {
-                            if (!userRepository.existsById(userId)) {
-                                validationErrors.add("User with ID " + userId + " does not exist");
-                            }
-                        }
+                        collectUserId(projectDto.getDomainWorkspaces().get(i).getUsers().get(j).getId(), userIds, validationErrors);
                     }
                 }
                 workspaceNames.add(projectDto.getDomainWorkspaces().get(i).getName());
             }
         }
 
-        // Validate workspace names
-        for (int i = 0; i < workspaceNames.size(); i++) {
-            for (int j = i + 1; j < workspaceNames.size(); j++) {
-                if (workspaceNames.get(i).equals(workspaceNames.get(j))) {
-                    validationErrors.add("Workspace name " + workspaceNames.get(i) + " is duplicated");
-                }
-            }
-        }
+        validateUsersExist(userIds, validationErrors);
+
+        validateWorkspaceNames(workspaceNames, validationErrors);
 
         // Validate external tools data
         if (projectDto.getExternalToolsDetails() == null) {
@@ -143,6 +128,7 @@ public class ProjectValidator {
         List<String> validationErrors = new ArrayList<>();
 
         List<String> workspaceNames = new ArrayList<>();
+        LongHashSet userIds = new LongHashSet();
 
         // Validate project details
         if (projectDto.getDetails() == null) {
@@ -166,17 +152,12 @@ public class ProjectValidator {
             validationErrors.add("At least one user is required");
         } else {
             for (int i = 0; i < projectDto.getUsers().size(); i++) {
-                Long userId = projectDto.getUsers().get(i).getUser().getId();
-                if (userId == null) {
-                    validationErrors.add("User ID is required");
-                } else {
-                    if (!userRepository.existsById(userId)) {
-                        validationErrors.add("User with ID " + userId + " does not exist");
-                    }
-                }
+                collectUserId(projectDto.getUsers().get(i).getUser().getId(), userIds, validationErrors);
             }
         }
 
+        validateUsersExist(userIds, validationErrors);
+
         // Validate external tools data
         if (projectDto.getExternalToolsDetails() == null) {
             validationErrors.add("External tools data is required");
@@ -197,4 +178,165 @@ public class ProjectValidator {
             throw new ValidationException(new ValidationErrorRestDto("Validation error for project creation", validationErrorDtos));
         }
     }
+
+    /**
+     * Validates a project export before it is imported, the import relies on every part the export normally contains.
+     */
+    public void validateImportedProject(CppsProjectJSONExportDto projectDto) {
+        List<String> validationErrors = new ArrayList<>();
+
+        List<String> workspaceNames = new ArrayList<>();
+        Set<String> gitlabUserIds = new HashSet<>();
+
+        // Validate project details
+        if (projectDto.getName() == null || projectDto.getName().isEmpty()) {
+            validationErrors.add("Project name is required");
+        }
+        if (projectDto.getDescription() == null || projectDto.getDescription().isEmpty()) {
+            validationErrors.add("Project description is required");
+        }
+        if (projectDto.getVersion() == null || projectDto.getVersion().isEmpty()) {
+            validationErrors.add("Project version is required");
+        }
+
+        // Validate users
+        if (projectDto.getUsers() == null || projectDto.getUsers().isEmpty()) {
+            validationErrors.add("At least one user is required");
+        } else {
+            for (UserJSONExportDto userDto : projectDto.getUsers()) {
+                if (!isGitlabId(userDto.getGitlabId())) {
+                    validationErrors.add("User " + userDto.getGitlabUsername() + " has no valid GitLab ID");
+                } else if (!gitlabUserIds.add(userDto.getGitlabId())) {
+                    validationErrors.add("User with GitLab ID " + userDto.getGitlabId() + " is listed twice");
+                }
+                if (userDto.getIsAdmin() == null || userDto.getIsReviewer() == null) {
+                    validationErrors.add("User with GitLab ID " + userDto.getGitlabId() + " has no admin or reviewer flag");
+                }
+            }
+        }
+
+        // Validate workspaces, their users have to be project users
+        if (projectDto.getCommonWorkspace() == null) {
+            validationErrors.add("Common workspace is required");
+        } else {
+            validateImportedWorkspace(projectDto.getCommonWorkspace(), gitlabUserIds, validationErrors);
+            workspaceNames.add(projectDto.getCommonWorkspace().getName());
+        }
+
+        if (projectDto.getDomainWorkspaces() == null) {
+            validationErrors.add("Domain workspaces are required");
+        } else {
+            for (WorkspaceJSONExportDto domainWorkspace : projectDto.getDomainWorkspaces()) {
+                validateImportedWorkspace(domainWorkspace, gitlabUserIds, validationErrors);
+                workspaceNames.add(domainWorkspace.getName());
+            }
+        }
+
+        validateWorkspaceNames(workspaceNames, validationErrors);
+
+        // Validate external tools data
+        if (projectDto.getExternalToolsDetails() == null) {
+            validationErrors.add("External tools data is required");
+        } else {
+            if (projectDto.getExternalToolsDetails().getRootGroupId() == null || projectDto.getExternalToolsDetails().getRootGroupId() <= 0) {
+                validationErrors.add("Root group ID is required and must be greater than 0");
+            }
+            if (projectDto.getExternalToolsDetails().getGitlabProjectId() == null) {
+                validationErrors.add("GitLab project ID is required, 0 if the project has not been built");
+            }
+            if (projectDto.getExternalToolsDetails().getMergeRequestTemplates() == null || projectDto.getExternalToolsDetails().getIssueTemplates() == null) {
+                validationErrors.add("Merge request and issue templates are required");
+            }
+        }
+
+        if (!validationErrors.isEmpty()) {
+            List<ValidationErrorDto> validationErrorDtos = new ArrayList<>();
+            for (int i = 0; i < validationErrors.size(); i++) {
+                validationErrorDtos.add(new ValidationErrorDto((long) i, validationErrors.get(i), null));
+            }
+            throw new ValidationException(new ValidationErrorRestDto("Validation error for project import", validationErrorDtos));
+        }
+    }
+
+    private static void validateImportedWorkspace(WorkspaceJSONExportDto workspace, Set<String> gitlabUserIds, List<String> validationErrors) {
+        if (workspace.getName() == null || workspace.getName().isEmpty()) {
+            validationErrors.add("Workspace name is required");
+        }
+        if (workspace.getUsers() == null || workspace.getUsers().isEmpty()) {
+            validationErrors.add("At least one user is required for workspace " + workspace.getName());
+            return;
+        }
+        for (String gitlabUserId : workspace.getUsers()) {
+            if (!gitlabUserIds.contains(gitlabUserId)) {
+                validationErrors.add("User with GitLab ID " + gitlabUserId + " of workspace " + workspace.getName() + " is not a project user");
+            }
+        }
+    }
+
+    private static boolean isGitlabId(String gitlabId) {
+        if (gitlabId == null || gitlabId.isEmpty()) {
+            return false;
+        }
+        try {
+            Long.parseLong(gitlabId);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Detects duplicated workspace names, two names with the same slug would end up in the same directory and GitLab subgroup.
+     */
+    private static void validateWorkspaceNames(List<String> workspaceNames, List<String> validationErrors) {
+        Map<String, String> workspaceNamesBySlug = new HashMap<>();
+        for (String workspaceName : workspaceNames) {
+            if (workspaceName == null || workspaceName.isEmpty()) {
+                continue;
+            }
+            String existingName = workspaceNamesBySlug.putIfAbsent(SlugUtil.createSlug(workspaceName), workspaceName);
+            if (existingName == null) {
+                continue;
+            }
+            if (existingName.equals(workspaceName)) {
+                validationErrors.add("Workspace name " + workspaceName + " is duplicated");
+            } else {
+                validationErrors.add("Workspace names " + existingName + " and " + workspaceName + " are too similar, they map to the same directory");
+            }
+        }
+    }
+
+    /**
+     * Remembers a referenced user, each user is checked only once no matter how many workspaces refer to it.
+     */
+    private static void collectUserId(Long userId, LongHashSet userIds, List<String> validationErrors) {
+        if (userId == null) {
+            validationErrors.add("User ID is required");
+        } else {
+            userIds.add(userId);
+        }
+    }
+
+    /**
+     * Checks the existence of all referenced users with a single query.
+     */
+    private void validateUsersExist(LongHashSet userIds, List<String> validationErrors) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        long[] referencedIds = userIds.toArray();
+        Arrays.sort(referencedIds);
+
+        LongHashSet existingIds = new LongHashSet(referencedIds.length);
+        for (Long userId : userRepository.findExistingIds(Arrays.stream(referencedIds).boxed().toList())) {
+            existingIds.add(userId);
+        }
+
+        for (long userId : referencedIds) {
+            if (!existingIds.contains(userId)) {
+                validationErrors.add("User with ID " + userId + " does not exist");
+            }
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package project.backend.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import project.backend.filetree.FileNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Templates of the generated repository files, compiled once at startup from resources/templates/repository.
+ * Files in the override directory replace the bundled template of the same name, so sites can adapt the generated
+ * content without a new build. Templates without placeholders are rendered once and the same file is handed out every time.
+ */
+@Slf4j
+@Component
+public class RepositoryTemplates {
+
+    public static final String README = "README.md";
+    public static final String GITIGNORE = "gitignore";
+    public static final String DEPENDENCIES = "mdcpps.json";
+    public static final String UNIT_TESTS_README = "unit-tests-README.md";
+    public static final String INTEGRATION_TESTS_README = "integration-tests-README.md";
+    public static final String COMMON_WORKSPACE_MODEL = "common-workspace-model.ccg";
+    public static final String DOMAIN_WORKSPACE_MODEL = "domain-workspace-model.cg";
+
+    private static final String LOCATION = "classpath*:templates/repository/*";
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUILDERS = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String overrideDirectory;
+    private final Map<String, Template> templates = new HashMap<>();
+    private final Map<String, FileNode> staticFiles = new HashMap<>();
+
+    public RepositoryTemplates(@Value("${repository.templates.override-directory:}") String overrideDirectory) {
+        this.overrideDirectory = overrideDirectory;
+    }
+
+    @PostConstruct
+    public void compileTemplates() throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            if (resource.isReadable() && resource.getFilename() != null) {
+                add(resource.getFilename(), resource.getContentAsString(StandardCharsets.UTF_8));
+            }
+        }
+
+        if (overrideDirectory != null && !overrideDirectory.isBlank()) {
+            Path directory = Path.of(overrideDirectory);
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+                    for (Path entry : entries) {
+                        add(entry.getFileName().toString(), Files.readString(entry));
+                        log.info("Using template {} from {}", entry.getFileName(), directory);
+                    }
+                }
+            } else {
+                log.warn("Template override directory {} does not exist, using the bundled templates", directory);
+            }
+        }
+
+        log.info("Compiled {} repository templates", templates.size());
+    }
+
+    private void add(String name, String source) {
+        Template template = Template.compile(name, source);
+        templates.put(name, template);
+        if (template.isStatic()) {
+            staticFiles.put(name, FileNode.of(source));
+        } else {
+            staticFiles.remove(name);
+        }
+    }
+
+    /**
+     * Renders a template that needs no values.
+     */
+    public FileNode render(String name) {
+        FileNode file = staticFiles.get(name);
+        return file != null ? file : render(name, Map.of());
+    }
+
+    /**
+     * Renders a template with the given placeholder values.
+     *
+     * @throws IllegalArgumentException if the template does not exist or a placeholder has no value
+     */
+    public FileNode render(String name, Map<String, String> values) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Template " + name + " does not exist");
+        }
+        if (template.isStatic()) {
+            return staticFiles.get(name);
+        }
+
+        StringBuilder out = BUILDERS.get();
+        try {
+            template.renderTo(out, values);
+            return FileNode.of(out.toString());
+        } finally {
+            out.setLength(0);
+            // Do not keep a builder that grew for an unusually large file
+            if (out.capacity() > MAX_POOLED_CAPACITY) {
+                BUILDERS.remove();
+            }
+        }
+    }
+}
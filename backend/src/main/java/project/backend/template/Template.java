@@ -0,0 +1,70 @@
+package project.backend.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Text template compiled into its literal parts and {@code {{name}}} placeholders.
+ * Compiling happens once, rendering only appends the parts and the values of the placeholders to a builder.
+ */
+public final class Template {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([A-Za-z][A-Za-z0-9_]*)\\s*}}");
+
+    private final String name;
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private Template(String name, String[] literals, String[] placeholders) {
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static Template compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int start = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(start, matcher.start()));
+            placeholders.add(matcher.group(1));
+            start = matcher.end();
+        }
+        literals.add(source.substring(start));
+
+        return new Template(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    /**
+     * Returns whether the template has no placeholders, its output is then always the same.
+     */
+    public boolean isStatic() {
+        return placeholders.length == 0;
+    }
+
+    /**
+     * Appends the output to the builder.
+     *
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = values.get(placeholders[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for placeholder " + placeholders[i] + " of template " + name);
+            }
+            out.append(value).append(literals[i + 1]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Template{" + name + ", " + placeholders.length + " placeholders}";
+    }
+}
@@ -0,0 +1,121 @@
+package project.backend.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open addressing hash set of primitive longs, avoids boxing every id into a {@link Long}.
+ * Not thread safe.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private boolean containsZero;
+    private int size;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        // Keep the load factor at or below 0.5
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+    }
+
+    /**
+     * Adds the value to the set.
+     *
+     * @return true if the value was not yet contained
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsZero;
+            containsZero = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+        int slot = slotOf(keys, value);
+        if (keys[slot] == value) {
+            return false;
+        }
+        keys[slot] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        return keys[slotOf(keys, value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(EMPTY);
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] values = new long[size];
+        int[] index = {0};
+        forEach(value -> values[index[0]++] = value);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        long[] values = toArray();
+        Arrays.sort(values);
+        return Arrays.toString(values);
+    }
+
+    private void grow() {
+        long[] grown = new long[keys.length * 2];
+        for (long key : keys) {
+            if (key != EMPTY) {
+                grown[slotOf(grown, key)] = key;
+            }
+        }
+        keys = grown;
+    }
+
+    /**
+     * Returns the slot holding the value, or the empty slot where it would be inserted.
+     */
+    private static int slotOf(long[] table, long value) {
+        int mask = table.length - 1;
+        int slot = mix(value) & mask;
+        while (table[slot] != EMPTY && table[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,15 @@
+package project.backend.util;
+
+import java.util.regex.Pattern;
+
+public class SlugUtil {
+
+    private static final Pattern NON_SLUG_CHARACTERS = Pattern.compile("[^a-z0-9]");
+
+    /**
+     * Creates the GitLab path and file name slug of a project or workspace name.
+     */
+    public static String createSlug(String name) {
+        return NON_SLUG_CHARACTERS.matcher(name.toLowerCase()).replaceAll("_");
+    }
+}
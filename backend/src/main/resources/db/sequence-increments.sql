@@ -0,0 +1,10 @@
+-- The entities allocate their ids in blocks of 50, Hibernate refuses to start when an existing database sequence
+-- still increments by the old block size. Fresh databases get the right increment from Hibernate itself.
+ALTER SEQUENCE IF EXISTS seq_project INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_project_user_access INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_workspace INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_users INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_external_tools_data INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_gitlab_project INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_gitlab_subgroup INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS seq_gitlab_template INCREMENT BY 50;
@@ -0,0 +1,89 @@
+package project.backend.unittests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import project.backend.basetest.TestData;
+import project.backend.entity.ExternalToolsData;
+import project.backend.entity.GitlabPrIssueTemplate;
+import project.backend.entity.Project;
+import project.backend.entity.WorkSpace;
+import project.backend.filetree.FileNode;
+import project.backend.filetree.FileTree;
+import project.backend.filetree.RepositoryChangeSet;
+import project.backend.service.FileGenerationService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@Slf4j
+@ActiveProfiles("test")
+public class FileTreeGenerationTest implements TestData {
+
+    @Autowired
+    private FileGenerationService fileGenerationService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void blobIdsMatchGit() {
+        assertEquals("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391", FileNode.of("").getBlobId());
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", FileNode.of("hello\n").getBlobId());
+    }
+
+    @Test
+    void generatedTreePassesTheConsistencyCheck() {
+        Project project = createProject();
+        FileTree files = fileGenerationService.generateFileTree(project);
+
+        assertTrue(files.contains("README.md"));
+        assertTrue(files.contains("domain_a_workspace/models/domain_a.cg"));
+        // The CLI jar is not part of the sources, it is only generated when a build put it into resources/repository
+        List<String> expected = files.contains("mdmcpps-cli.jar") ? List.of() : List.of("mdmcpps-cli.jar file is missing");
+        assertEquals(expected, fileGenerationService.checkFileTree(files, project));
+        assertFalse(fileGenerationService.checkFileTree(FileTree.empty(), project).isEmpty());
+    }
+
+    @Test
+    void treeWrittenToDiskReadsBackUnchanged() throws IOException {
+        FileTree files = fileGenerationService.generateFileTree(createProject());
+
+        RepositoryChangeSet.of(FileTree.empty(), files, List.of()).writeTo(directory);
+        FileTree read = FileTree.read(directory);
+
+        assertEquals(files.paths(), read.paths());
+        for (String path : files.paths()) {
+            assertEquals(files.blobId(path), read.blobId(path), path);
+        }
+    }
+
+    private static Project createProject() {
+        Project project = Project.builder().id(1L).name("Demo").description("Demo project").version("1.0").isDemo(false).build();
+        WorkSpace common = WorkSpace.builder().id(1L).name("Common").isCommon(true)
+            .users(new HashSet<>()).gitlabSubgroups(new HashSet<>()).project(project).build();
+        WorkSpace domain = WorkSpace.builder().id(2L).name("Domain A").isCommon(false)
+            .users(new HashSet<>()).gitlabSubgroups(new HashSet<>()).project(project).build();
+        project.setWorkSpaces(new HashSet<>(List.of(common, domain)));
+        project.setGitlabPrIssueTemplates(new HashSet<>(List.of(GitlabPrIssueTemplate.builder()
+            .id(1L).name("Bug Report").isPrTemplate(false).content("## Bug").project(project).build())));
+        project.setProjectUserAccesses(new HashSet<>());
+        ExternalToolsData externalToolsData = new ExternalToolsData();
+        externalToolsData.setProject(project);
+        project.setExternalToolsData(externalToolsData);
+        return project;
+    }
+}
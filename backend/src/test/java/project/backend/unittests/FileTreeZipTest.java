@@ -0,0 +1,51 @@
+package project.backend.unittests;
+
+import org.junit.jupiter.api.Test;
+import project.backend.filetree.FileTree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileTreeZipTest {
+
+    @Test
+    void zipHoldsEveryFileBelowTheRootDirectory() throws IOException {
+        byte[] jar = new byte[]{0x50, 0x4b, 0x03, 0x04, 1, 2, 3};
+        FileTree files = FileTree.builder()
+            .add("README.md", "# Demo\n".repeat(50))
+            .add("models/domain/.gitkeep", "")
+            .add("mdmcpps-cli.jar", jar)
+            .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        files.writeZipTo(out, "demo");
+
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        Map<String, Integer> methods = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                contents.put(entry.getName(), zip.readAllBytes());
+                methods.put(entry.getName(), entry.getMethod());
+            }
+        }
+
+        assertEquals(List.of("demo/README.md", "demo/mdmcpps-cli.jar", "demo/models/domain/.gitkeep"), List.copyOf(contents.keySet()));
+        assertEquals("# Demo\n".repeat(50), new String(contents.get("demo/README.md"), StandardCharsets.UTF_8));
+        assertArrayEquals(jar, contents.get("demo/mdmcpps-cli.jar"));
+        assertEquals(0, contents.get("demo/models/domain/.gitkeep").length);
+
+        // Jars are already compressed and stored as they are
+        assertEquals(ZipEntry.STORED, methods.get("demo/mdmcpps-cli.jar"));
+        assertEquals(ZipEntry.DEFLATED, methods.get("demo/README.md"));
+    }
+}
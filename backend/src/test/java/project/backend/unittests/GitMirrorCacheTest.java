@@ -0,0 +1,159 @@
+package project.backend.unittests;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import project.backend.client.GitMirrorCache;
+import project.backend.client.JgitOperations;
+import project.backend.client.ReferenceBlobStore;
+import project.backend.filetree.FileTree;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the mirror cache against local bare repositories, the file transport needs no SSH.
+ */
+public class GitMirrorCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    private JgitOperations gitOperations;
+    private Path mirrors;
+
+    @BeforeEach
+    void createOperations() throws Exception {
+        ReferenceBlobStore referenceBlobStore = new ReferenceBlobStore(directory.resolve("reference-objects").toString());
+        referenceBlobStore.loadReferenceFiles();
+        gitOperations = new JgitOperations("https://gitlab.example.org", directory.resolve("id_rsa").toString(),
+            Duration.ofSeconds(5), 1, referenceBlobStore);
+        mirrors = directory.resolve("mirrors");
+    }
+
+    @AfterEach
+    void closeSessions() {
+        gitOperations.close();
+    }
+
+    @Test
+    void mirrorIsShallowAndPicksUpExternalPushes() throws Exception {
+        String remoteUrl = createRemote("remote", FileTree.builder().add("a.txt", "a").build());
+        GitMirrorCache cache = createCache(DataSize.ofMegabytes(10));
+
+        FileTree files = cache.withMirror(1, remoteUrl, FileTree::read);
+        assertTrue(files.contains("a.txt"));
+        assertTrue(Files.exists(mirrors.resolve("1/.git/shallow")));
+
+        Path clone = directory.resolve("clone");
+        gitOperations.cloneRepository(remoteUrl, clone);
+        Files.writeString(clone.resolve("b.txt"), "b");
+        gitOperations.commitAndPush(clone, "Add b");
+
+        assertTrue(cache.withMirror(1, remoteUrl, FileTree::read).contains("b.txt"));
+    }
+
+    @Test
+    void changesLeftByAnActionAreDiscarded() throws Exception {
+        String remoteUrl = createRemote("remote", FileTree.builder().add("a.txt", "a").build());
+        GitMirrorCache cache = createCache(DataSize.ofMegabytes(10));
+
+        cache.withMirror(1, remoteUrl, workTree -> {
+            Files.writeString(workTree.resolve("junk.txt"), "junk");
+            Files.writeString(workTree.resolve("a.txt"), "changed");
+            return null;
+        });
+
+        FileTree files = cache.withMirror(1, remoteUrl, FileTree::read);
+        assertFalse(files.contains("junk.txt"));
+        assertEquals("a", files.get("a.txt").asString());
+    }
+
+    @Test
+    void usesOfTheSameMirrorDoNotOverlap() throws Exception {
+        String remoteUrl = createRemote("remote", FileTree.builder().add("a.txt", "a").build());
+        GitMirrorCache cache = createCache(DataSize.ofMegabytes(10));
+
+        AtomicInteger inside = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> uses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                uses.add(executor.submit(() -> cache.withMirror(1, remoteUrl, workTree -> {
+                    if (inside.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    LockSupport.parkNanos(Duration.ofMillis(20).toNanos());
+                    inside.decrementAndGet();
+                    return null;
+                })));
+            }
+            for (Future<Object> use : uses) {
+                use.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertFalse(overlapped.get());
+    }
+
+    @Test
+    void leastRecentlyUsedMirrorIsEvictedOverBudget() throws Exception {
+        FileTree files = FileTree.builder().add("data.bin", new byte[4000]).build();
+        String firstUrl = createRemote("first", files);
+        String secondUrl = createRemote("second", files);
+
+        createCache(DataSize.ofMegabytes(10)).withMirror(1, firstUrl, FileTree::read);
+        long mirrorBytes = sizeOf(mirrors.resolve("1"));
+
+        // A new cache picks up the existing mirror, the budget fits one mirror but not two
+        GitMirrorCache cache = createCache(DataSize.ofBytes(mirrorBytes * 3 / 2));
+        cache.withMirror(2, secondUrl, FileTree::read);
+
+        assertFalse(Files.exists(mirrors.resolve("1")));
+        assertTrue(Files.exists(mirrors.resolve("2")));
+    }
+
+    private GitMirrorCache createCache(DataSize maxSize) throws Exception {
+        GitMirrorCache cache = new GitMirrorCache(gitOperations, mirrors.toString(), maxSize);
+        cache.loadMirrors();
+        return cache;
+    }
+
+    private String createRemote(String name, FileTree files) throws Exception {
+        Path remote = directory.resolve(name + ".git");
+        Git.init().setBare(true).setInitialBranch("main").setDirectory(remote.toFile()).call().close();
+        String remoteUrl = remote.toUri().toString();
+        gitOperations.initAndPush(files, remoteUrl, "Initial commit");
+        return remoteUrl;
+    }
+
+    private static long sizeOf(Path path) throws Exception {
+        try (Stream<Path> files = Files.walk(path)) {
+            long size = 0;
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+}
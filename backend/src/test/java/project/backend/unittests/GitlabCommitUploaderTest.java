@@ -0,0 +1,205 @@
+package project.backend.unittests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import project.backend.basetest.TestData;
+import project.backend.client.GitlabCommitUploader;
+import project.backend.filetree.FileTree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@Slf4j
+@ActiveProfiles("test")
+public class GitlabCommitUploaderTest implements TestData {
+
+    private static final long PROJECT_ID = 42;
+
+    private static final HttpServer GITLAB = startGitlabStub();
+    private static final List<JsonNode> COMMITS = new CopyOnWriteArrayList<>();
+    private static volatile String existingTree = "[]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private GitlabCommitUploader gitlabCommitUploader;
+
+    @TempDir
+    Path directory;
+
+    @DynamicPropertySource
+    static void gitlabProperties(DynamicPropertyRegistry registry) {
+        registry.add("gitlab.base-url", () -> "http://localhost:" + GITLAB.getAddress().getPort());
+        registry.add("gitlab.upload.commit-api-max-payload", () -> "1KB");
+    }
+
+    @AfterAll
+    static void stopGitlabStub() {
+        GITLAB.stop(0);
+    }
+
+    @BeforeEach
+    void resetGitlabStub() {
+        COMMITS.clear();
+        existingTree = "[]";
+    }
+
+    @Test
+    void initialUploadSendsAllFilesInOneCommit() {
+        byte[] binary = {(byte) 0xCA, (byte) 0xFE, 0, 1};
+        FileTree files = FileTree.builder()
+            .add("README.md", "# Project")
+            .add("libs/cli.jar", binary)
+            .build();
+
+        GitlabCommitUploader.Result result = gitlabCommitUploader
+            .upload("token", PROJECT_ID, "main", files, "Initial commit", true)
+            .block();
+
+        assertEquals(GitlabCommitUploader.Result.COMMITTED, result);
+        assertEquals(1, COMMITS.size());
+
+        JsonNode commit = COMMITS.get(0);
+        assertEquals("main", commit.get("branch").asText());
+        assertEquals("Initial commit", commit.get("commit_message").asText());
+
+        Map<String, JsonNode> actions = actionsByPath(commit);
+        assertEquals(2, actions.size());
+        assertEquals("create", actions.get("README.md").get("action").asText());
+        assertEquals("# Project", actions.get("README.md").get("content").asText());
+        assertEquals("base64", actions.get("libs/cli.jar").get("encoding").asText());
+        assertEquals(Base64.getEncoder().encodeToString(binary), actions.get("libs/cli.jar").get("content").asText());
+    }
+
+    @Test
+    void updateCreatesUpdatesAndDeletesAgainstTheExistingTree() throws IOException {
+        existingTree = "[{\"id\":\"a1\",\"name\":\"README.md\",\"type\":\"blob\",\"path\":\"README.md\",\"mode\":\"100644\"},"
+            + "{\"id\":\"t1\",\"name\":\"docs\",\"type\":\"tree\",\"path\":\"docs\",\"mode\":\"040000\"},"
+            + "{\"id\":\"b2\",\"name\":\"old.md\",\"type\":\"blob\",\"path\":\"docs/old.md\",\"mode\":\"100644\"}]";
+
+        Files.writeString(directory.resolve("README.md"), "# Project v2");
+        Files.createDirectories(directory.resolve("docs"));
+        Files.writeString(directory.resolve("docs/new.md"), "new");
+        // Clones contain a .git directory, it must never be uploaded
+        Files.createDirectories(directory.resolve(".git"));
+        Files.writeString(directory.resolve(".git/HEAD"), "ref: refs/heads/main");
+
+        GitlabCommitUploader.Result result = gitlabCommitUploader
+            .upload("token", PROJECT_ID, "main", FileTree.read(directory), "Update files", false)
+            .block();
+
+        assertEquals(GitlabCommitUploader.Result.COMMITTED, result);
+        Map<String, JsonNode> actions = actionsByPath(COMMITS.get(0));
+        assertEquals(3, actions.size());
+        assertEquals("update", actions.get("README.md").get("action").asText());
+        assertEquals("create", actions.get("docs/new.md").get("action").asText());
+        assertEquals("delete", actions.get("docs/old.md").get("action").asText());
+    }
+
+    @Test
+    void updateWithMatchingBlobIdsSendsNothing() {
+        FileTree files = FileTree.builder().add("README.md", "# Project").build();
+        existingTree = "[{\"id\":\"" + files.blobId("README.md") + "\",\"name\":\"README.md\",\"type\":\"blob\",\"path\":\"README.md\",\"mode\":\"100644\"}]";
+
+        GitlabCommitUploader.Result result = gitlabCommitUploader
+            .upload("token", PROJECT_ID, "main", files, "Update files", false)
+            .block();
+
+        assertEquals(GitlabCommitUploader.Result.UNCHANGED, result);
+        assertTrue(COMMITS.isEmpty());
+    }
+
+    @Test
+    void uploadAboveThePayloadLimitSendsNothing() {
+        FileTree files = FileTree.builder().add("large.txt", "x".repeat(2048)).build();
+
+        GitlabCommitUploader.Result result = gitlabCommitUploader
+            .upload("token", PROJECT_ID, "main", files, "Initial commit", true)
+            .block();
+
+        assertEquals(GitlabCommitUploader.Result.TOO_LARGE, result);
+        assertTrue(COMMITS.isEmpty());
+    }
+
+    @Test
+    void binaryUploadIsMeasuredAfterBase64Encoding() {
+        // 900 bytes are below the 1KB limit on disk, but 1200 bytes once base64 encoded
+        byte[] binary = new byte[900];
+        binary[0] = (byte) 0xFF;
+        FileTree files = FileTree.builder().add("libs/cli.jar", binary).build();
+
+        GitlabCommitUploader.Result result = gitlabCommitUploader
+            .upload("token", PROJECT_ID, "main", files, "Initial commit", true)
+            .block();
+
+        assertEquals(GitlabCommitUploader.Result.TOO_LARGE, result);
+        assertTrue(COMMITS.isEmpty());
+
+        FileTree text = FileTree.builder().add("README.md", "x".repeat(900)).build();
+
+        assertEquals(GitlabCommitUploader.Result.COMMITTED, gitlabCommitUploader
+            .upload("token", PROJECT_ID, "main", text, "Initial commit", true)
+            .block());
+    }
+
+    private Map<String, JsonNode> actionsByPath(JsonNode commit) {
+        Map<String, JsonNode> actions = new HashMap<>();
+        commit.get("actions").forEach(action -> actions.put(action.get("file_path").asText(), action));
+        return actions;
+    }
+
+    /**
+     * Stub of the GitLab repository tree and commits endpoints of a single project.
+     */
+    private static HttpServer startGitlabStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/v4/projects/" + PROJECT_ID + "/repository/tree", exchange -> respond(exchange, 200, existingTree));
+            server.createContext("/api/v4/projects/" + PROJECT_ID + "/repository/commits", exchange -> {
+                COMMITS.add(new ObjectMapper().readTree(exchange.getRequestBody()));
+                respond(exchange, 201, "{\"id\":\"c0ffee\"}");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start GitLab stub", e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package project.backend.unittests;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import project.backend.basetest.TestData;
+import project.backend.client.GitlabApiClient;
+import project.backend.client.dto.GitlabMemberResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@Slf4j
+@ActiveProfiles("test")
+public class GitlabPaginatorTest implements TestData {
+
+    private static final HttpServer MEMBERS_ENDPOINT = startMembersEndpoint();
+    private static final List<String> REQUESTED_QUERIES = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private GitlabApiClient gitlabApiClient;
+
+    @DynamicPropertySource
+    static void gitlabProperties(DynamicPropertyRegistry registry) {
+        registry.add("gitlab.base-url", () -> "http://localhost:" + MEMBERS_ENDPOINT.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopMembersEndpoint() {
+        MEMBERS_ENDPOINT.stop(0);
+    }
+
+    @BeforeEach
+    void resetMembersEndpoint() {
+        REQUESTED_QUERIES.clear();
+    }
+
+    @Test
+    void listFollowsNextLinkAcrossPages() {
+        List<GitlabMemberResponse> members = gitlabApiClient.listGroupMembers("access-token", 5).collectList().block();
+
+        assertEquals(List.of(
+            new GitlabMemberResponse(1L, "first", 40),
+            new GitlabMemberResponse(2L, "second", 30),
+            new GitlabMemberResponse(3L, "third", 30)), members);
+        assertEquals(2, REQUESTED_QUERIES.size());
+        assertTrue(REQUESTED_QUERIES.get(0).contains("per_page=100"));
+        assertTrue(REQUESTED_QUERIES.get(1).contains("page=2"));
+    }
+
+    @Test
+    void nextPageIsOnlyRequestedOnceTheCurrentPageIsConsumed() {
+        List<GitlabMemberResponse> members = gitlabApiClient.listGroupMembers("access-token", 5).take(2).collectList().block();
+
+        assertEquals(2, members.size());
+        assertEquals(1, REQUESTED_QUERIES.size());
+    }
+
+    /**
+     * Stub of the group members endpoint serving two pages, the first one links to the second like GitLab does.
+     */
+    private static HttpServer startMembersEndpoint() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/v4/groups/5/members", exchange -> {
+                String query = exchange.getRequestURI().getQuery();
+                REQUESTED_QUERIES.add(query);
+
+                String body;
+                if (query.contains("page=2")) {
+                    body = "[{\"id\":3,\"username\":\"third\",\"access_level\":30}]";
+                } else {
+                    // Fields the client does not know are skipped
+                    body = "[{\"id\":1,\"username\":\"first\",\"access_level\":40,\"created_by\":{\"id\":9}},"
+                        + "{\"id\":2,\"username\":\"second\",\"access_level\":30}]";
+                    exchange.getResponseHeaders().add("Link", "<http://localhost:" + server.getAddress().getPort()
+                        + "/api/v4/groups/5/members?page=2&per_page=100>; rel=\"next\"");
+                }
+
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start members endpoint stub", e);
+        }
+    }
+}
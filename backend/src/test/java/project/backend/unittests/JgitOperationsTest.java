@@ -0,0 +1,104 @@
+package project.backend.unittests;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import project.backend.client.JgitOperations;
+import project.backend.client.ReferenceBlobStore;
+import project.backend.filetree.FileMode;
+import project.backend.filetree.FileNode;
+import project.backend.filetree.FileTree;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the git operations against a local bare repository, the file transport needs no SSH.
+ */
+public class JgitOperationsTest {
+
+    @TempDir
+    private Path directory;
+
+    private ReferenceBlobStore referenceBlobStore;
+    private JgitOperations gitOperations;
+    private String remoteUrl;
+
+    @BeforeEach
+    void createRemote() throws Exception {
+        referenceBlobStore = new ReferenceBlobStore(directory.resolve("reference-objects").toString());
+        referenceBlobStore.loadReferenceFiles();
+        gitOperations = new JgitOperations("https://gitlab.example.org", directory.resolve("id_rsa").toString(),
+            Duration.ofSeconds(5), 1, referenceBlobStore);
+
+        Path remote = directory.resolve("remote.git");
+        Git.init().setBare(true).setInitialBranch("main").setDirectory(remote.toFile()).call().close();
+        remoteUrl = remote.toUri().toString();
+    }
+
+    @AfterEach
+    void closeSessions() {
+        gitOperations.close();
+    }
+
+    @Test
+    void remoteUrlUsesSshHostOfBaseUrl() {
+        assertEquals("git@gitlab.example.org:group/project.git", gitOperations.remoteUrl("group", "project"));
+    }
+
+    @Test
+    void initialPushCanBeCloned() throws Exception {
+        FileNode ciConfiguration = referenceBlobStore.get("reference_gitlab_ci.yml");
+        assertNotNull(ciConfiguration);
+
+        FileTree files = FileTree.builder()
+            .add("README.md", "# Demo")
+            .add("models/domain/.gitkeep", "")
+            .add(".gitlab-ci.yml", ciConfiguration)
+            .add("run.sh", FileNode.of("echo run".getBytes(), FileMode.EXECUTABLE))
+            .build();
+
+        gitOperations.initAndPush(files, remoteUrl, "Initial commit");
+
+        Path clone = directory.resolve("clone");
+        gitOperations.cloneRepository(remoteUrl, clone);
+
+        assertEquals("# Demo", Files.readString(clone.resolve("README.md")));
+        assertTrue(Files.exists(clone.resolve("models/domain/.gitkeep")));
+        assertEquals(ciConfiguration.asString(), Files.readString(clone.resolve(".gitlab-ci.yml")));
+        assertTrue(Files.isExecutable(clone.resolve("run.sh")));
+
+        try (Git git = Git.open(clone.toFile())) {
+            RevCommit head = git.log().call().iterator().next();
+            assertEquals("Initial commit", head.getFullMessage());
+        }
+    }
+
+    @Test
+    void commitAndPushOnlyPushesChanges() throws Exception {
+        gitOperations.initAndPush(FileTree.builder().add("a.txt", "a").add("b.txt", "b").build(), remoteUrl, "Initial commit");
+
+        Path clone = directory.resolve("clone");
+        gitOperations.cloneRepository(remoteUrl, clone);
+        assertFalse(gitOperations.commitAndPush(clone, "Nothing changed"));
+
+        Files.delete(clone.resolve("a.txt"));
+        Files.writeString(clone.resolve("c.txt"), "c");
+        assertTrue(gitOperations.commitAndPush(clone, "Update files"));
+
+        Path secondClone = directory.resolve("second-clone");
+        gitOperations.cloneRepository(remoteUrl, secondClone);
+        assertFalse(Files.exists(secondClone.resolve("a.txt")));
+        assertEquals("b", Files.readString(secondClone.resolve("b.txt")));
+        assertEquals("c", Files.readString(secondClone.resolve("c.txt")));
+    }
+}
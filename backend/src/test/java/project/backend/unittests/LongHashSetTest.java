@@ -0,0 +1,56 @@
+package project.backend.unittests;
+
+import org.junit.jupiter.api.Test;
+import project.backend.util.LongHashSet;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    void zeroAndNegativeValuesAreStored() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.add(-1L));
+
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(-1L));
+        assertFalse(set.contains(1L));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void behavesLikeHashSetWhileGrowing() {
+        Random random = new Random(1);
+
+        for (int round = 0; round < 20; round++) {
+            // Small initial sizes force several resizes
+            LongHashSet set = new LongHashSet(random.nextInt(5));
+            Set<Long> expected = new HashSet<>();
+
+            for (int i = 0; i < 2000; i++) {
+                long value = random.nextInt(3000) - 5;
+                assertEquals(expected.add(value), set.add(value));
+            }
+
+            assertEquals(expected.size(), set.size());
+            for (long value = -10; value < 3010; value++) {
+                assertEquals(expected.contains(value), set.contains(value));
+            }
+
+            Set<Long> elements = new HashSet<>();
+            for (long value : set.toArray()) {
+                elements.add(value);
+            }
+            assertEquals(expected, elements);
+        }
+    }
+}
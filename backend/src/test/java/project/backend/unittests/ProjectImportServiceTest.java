@@ -0,0 +1,178 @@
+package project.backend.unittests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import project.backend.basetest.TestData;
+import project.backend.dto.CppsProjectJSONExportDto;
+import project.backend.dto.ExternalToolsDetailsDto;
+import project.backend.dto.GitlabIssuePrTemplateDto;
+import project.backend.dto.ProjectImportResultDto;
+import project.backend.dto.UserJSONExportDto;
+import project.backend.dto.WorkspaceJSONExportDto;
+import project.backend.entity.Project;
+import project.backend.entity.User;
+import project.backend.repository.ProjectRepository;
+import project.backend.repository.UserRepository;
+import project.backend.service.ProjectImportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "project.import.batch-size=2")
+@Slf4j
+@ActiveProfiles("test")
+public class ProjectImportServiceTest implements TestData {
+
+    @Autowired
+    private ProjectImportService projectImportService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void importProjectsReportsEveryDocument() throws IOException {
+        User admin = userRepository.save(User.builder().gitlabId(80_001L).gitlabUsername("import-admin").avatarUrl("https://gitlab.example/avatar/1").build());
+        userRepository.save(User.builder().gitlabId(80_002L).gitlabUsername("import-member").avatarUrl("https://gitlab.example/avatar/2").build());
+        Principal principal = () -> String.valueOf(admin.getId());
+
+        CppsProjectJSONExportDto invalid = createExportDto("Invalid import");
+        invalid.getDomainWorkspaces().get(0).setUsers(List.of("80003"));
+
+        String input = String.join("\n",
+            objectMapper.writeValueAsString(createExportDto("First import")),
+            "",
+            objectMapper.writeValueAsString(invalid),
+            objectMapper.writeValueAsString(createExportDto("Second import")),
+            objectMapper.writeValueAsString(createExportDto("Third import")),
+            "{\"name\": \"Broken import\", ");
+
+        List<ProjectImportResultDto> results = importProjects(input, principal);
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(1, results.get(0).getLine());
+
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(3, results.get(1).getLine());
+        assertEquals("Invalid import", results.get(1).getName());
+        assertNull(results.get(1).getProjectId());
+        assertEquals(List.of("User with GitLab ID 80003 of workspace Domain is not a project user"), results.get(1).getErrors());
+
+        assertTrue(results.get(2).isSuccess());
+        assertTrue(results.get(3).isSuccess());
+        assertFalse(results.get(4).isSuccess());
+        assertEquals(6, results.get(4).getLine());
+
+        Project project = projectRepository.findDetailById(results.get(3).getProjectId()).orElseThrow();
+        assertEquals("Third import", project.getName());
+        assertEquals(2, project.getProjectUserAccesses().size());
+        assertEquals(2, project.getWorkSpaces().size());
+    }
+
+    @Test
+    void failingBatchIsImportedOneProjectAtATime() throws IOException {
+        User admin = userRepository.save(User.builder().gitlabId(81_001L).gitlabUsername("batch-admin").avatarUrl("https://gitlab.example/avatar/1").build());
+        userRepository.save(User.builder().gitlabId(81_002L).gitlabUsername("batch-member").avatarUrl("https://gitlab.example/avatar/2").build());
+        Principal principal = () -> String.valueOf(admin.getId());
+
+        // The principal has to be a user of the imported project, which only fails once the project is persisted
+        CppsProjectJSONExportDto foreign = createExportDto("Foreign import", "81002");
+
+        String input = String.join("\n",
+            objectMapper.writeValueAsString(createExportDto("Valid import", "81001", "81002")),
+            objectMapper.writeValueAsString(foreign));
+
+        long projectsBefore = projectRepository.count();
+        List<ProjectImportResultDto> results = importProjects(input, principal);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(List.of("Principal not found in project access list"), results.get(1).getErrors());
+        assertEquals(projectsBefore + 1, projectRepository.count());
+    }
+
+    @Test
+    void documentThatCannotBeBoundDoesNotStopTheImport() throws IOException {
+        User admin = userRepository.save(User.builder().gitlabId(82_001L).gitlabUsername("bind-admin").avatarUrl("https://gitlab.example/avatar/1").build());
+        userRepository.save(User.builder().gitlabId(82_002L).gitlabUsername("bind-member").avatarUrl("https://gitlab.example/avatar/2").build());
+        Principal principal = () -> String.valueOf(admin.getId());
+
+        // Binding fails at the users, the nested workspace after them still has to be skipped
+        String input = String.join("\n",
+            "{\"name\": \"Wrong type\", \"users\": \"everyone\", \"commonWorkspace\": {\"name\": \"Common\", \"users\": []}}",
+            objectMapper.writeValueAsString(createExportDto("Bound import", "82001", "82002")));
+
+        List<ProjectImportResultDto> results = importProjects(input, principal);
+
+        assertEquals(2, results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertEquals(1, results.get(0).getLine());
+        assertTrue(results.get(0).getErrors().get(0).startsWith("Invalid project document"));
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("Bound import", results.get(1).getName());
+    }
+
+    private List<ProjectImportResultDto> importProjects(String input, Principal principal) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        projectImportService.importProjects(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, principal);
+
+        List<ProjectImportResultDto> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, ProjectImportResultDto.class));
+        }
+        return results;
+    }
+
+    private static CppsProjectJSONExportDto createExportDto(String name) {
+        return createExportDto(name, "80001", "80002");
+    }
+
+    private static CppsProjectJSONExportDto createExportDto(String name, String... gitlabIds) {
+        List<UserJSONExportDto> users = new ArrayList<>();
+        for (String gitlabId : gitlabIds) {
+            users.add(UserJSONExportDto.builder().gitlabId(gitlabId).gitlabUsername("user-" + gitlabId).isAdmin(false).isReviewer(false).build());
+        }
+
+        List<GitlabIssuePrTemplateDto> templates = List.of(GitlabIssuePrTemplateDto.builder().name("Feature").content("## Feature").build());
+
+        return CppsProjectJSONExportDto.builder()
+            .name(name)
+            .description("Imported")
+            .version("1.0")
+            .isDemo(false)
+            .users(users)
+            .commonWorkspace(WorkspaceJSONExportDto.builder().name("Common").users(List.of(gitlabIds)).build())
+            .domainWorkspaces(new ArrayList<>(List.of(WorkspaceJSONExportDto.builder().name("Domain").users(List.of(gitlabIds[0])).build())))
+            .externalToolsDetails(ExternalToolsDetailsDto.builder()
+                .rootGroupId(1L)
+                .gitlabProjectId(0L)
+                .mergeRequestTemplates(templates)
+                .issueTemplates(templates)
+                .build())
+            .build();
+    }
+}
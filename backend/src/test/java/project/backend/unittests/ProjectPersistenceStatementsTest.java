@@ -0,0 +1,159 @@
+package project.backend.unittests;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import project.backend.basetest.TestData;
+import project.backend.dto.CommonWorkspaceDto;
+import project.backend.dto.CppsProjectDto;
+import project.backend.dto.DomainWorkspaceDto;
+import project.backend.dto.ExternalToolsDetailsDto;
+import project.backend.dto.GitlabIssuePrTemplateDto;
+import project.backend.dto.ProjectDetailsDto;
+import project.backend.dto.ProjectUserDto;
+import project.backend.dto.UserDto;
+import project.backend.entity.Project;
+import project.backend.entity.User;
+import project.backend.entity.WorkSpace;
+import project.backend.mapper.ProjectMapper;
+import project.backend.repository.ProjectRepository;
+import project.backend.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the JDBC statements needed to create and load projects. The new rows of a project are written in batches,
+ * loading a project takes the same number of statements however many members and workspaces it has.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Slf4j
+@ActiveProfiles("test")
+public class ProjectPersistenceStatementsTest implements TestData {
+
+    private static final int PROJECTS = 10;
+    private static final int USERS = 30;
+    private static final int DOMAIN_WORKSPACES = 6;
+    private static final int MAX_STATEMENTS_PER_PROJECT = 20;
+    private static final int MAX_STATEMENTS_PER_EXPORT = 5;
+
+    @Autowired
+    private ProjectMapper projectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createProjectWritesRowsInBatches() {
+        List<UserDto> users = createUsers(90_000L);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> projectIds = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            projectIds.add(projectMapper.mapDtoToEntityForCreationAndPersist(createProjectDto("Semester project " + i, users)).getId());
+        }
+
+        long statements = statistics.getPrepareStatementCount();
+        long inserts = statistics.getEntityInsertCount() + statistics.getCollectionUpdateCount();
+        log.info("Created {} projects with {} statements for {} entity and collection inserts, {} statements per project",
+            PROJECTS, statements, inserts, (double) statements / PROJECTS);
+
+        assertTrue(statements <= (long) MAX_STATEMENTS_PER_PROJECT * PROJECTS,
+            "Expected at most " + MAX_STATEMENTS_PER_PROJECT + " statements per project, got " + (double) statements / PROJECTS);
+
+        Project project = projectRepository.findDetailById(projectIds.get(0)).orElseThrow();
+        assertEquals(USERS, project.getProjectUserAccesses().size());
+        assertEquals(DOMAIN_WORKSPACES + 1, project.getWorkSpaces().size());
+        assertEquals(4, project.getGitlabPrIssueTemplates().size());
+    }
+
+    @Test
+    void loadingTheWholeProjectTakesAFixedNumberOfStatements() {
+        long projectId = projectMapper.mapDtoToEntityForCreationAndPersist(createProjectDto("Export project", createUsers(91_000L))).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Loaded outside of a transaction, every collection the export navigates has to be initialized already
+        Project project = projectRepository.findForExportById(projectId).orElseThrow();
+
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_EXPORT,
+            "Expected at most " + MAX_STATEMENTS_PER_EXPORT + " statements, got " + statistics.getPrepareStatementCount());
+        assertEquals(USERS, project.getProjectUserAccesses().size());
+        project.getProjectUserAccesses().forEach(access -> assertTrue(Hibernate.isInitialized(access.getUser())));
+        assertEquals(4, project.getGitlabPrIssueTemplates().size());
+        assertEquals(DOMAIN_WORKSPACES + 1, project.getWorkSpaces().size());
+        int workspaceUsers = 0;
+        for (WorkSpace workSpace : project.getWorkSpaces()) {
+            assertTrue(Hibernate.isInitialized(workSpace.getGitlabSubgroups()));
+            workspaceUsers += workSpace.getUsers().size();
+        }
+        assertEquals(USERS * 2, workspaceUsers);
+    }
+
+    private List<UserDto> createUsers(long firstGitlabId) {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(User.builder()
+                .gitlabId(firstGitlabId + i)
+                .gitlabUsername("batch-user-" + firstGitlabId + "-" + i)
+                .avatarUrl("https://gitlab.example/avatar/" + i)
+                .build());
+            users.add(UserDto.builder().id(user.getId()).build());
+        }
+        return users;
+    }
+
+    private static CppsProjectDto createProjectDto(String name, List<UserDto> users) {
+        List<ProjectUserDto> projectUsers = new ArrayList<>();
+        for (UserDto user : users) {
+            projectUsers.add(ProjectUserDto.builder().user(user).build());
+        }
+
+        List<DomainWorkspaceDto> domainWorkspaces = new ArrayList<>();
+        int usersPerWorkspace = users.size() / DOMAIN_WORKSPACES;
+        for (int i = 0; i < DOMAIN_WORKSPACES; i++) {
+            domainWorkspaces.add(DomainWorkspaceDto.builder()
+                .id(0L)
+                .name("Domain " + i)
+                .users(users.subList(i * usersPerWorkspace, (i + 1) * usersPerWorkspace))
+                .build());
+        }
+
+        List<GitlabIssuePrTemplateDto> templates = List.of(
+            GitlabIssuePrTemplateDto.builder().name("Feature").content("## Feature").build(),
+            GitlabIssuePrTemplateDto.builder().name("Bug").content("## Bug").build());
+
+        return CppsProjectDto.builder()
+            .details(ProjectDetailsDto.builder().name(name).description("Batching").version("1.0").demo(false).build())
+            .users(projectUsers)
+            .commonWorkspace(CommonWorkspaceDto.builder().id(-1L).name("Common").users(users).build())
+            .domainWorkspaces(domainWorkspaces)
+            .externalToolsDetails(ExternalToolsDetailsDto.builder()
+                .rootGroupId(1L)
+                .mergeRequestTemplates(templates)
+                .issueTemplates(templates)
+                .build())
+            .build();
+    }
+}
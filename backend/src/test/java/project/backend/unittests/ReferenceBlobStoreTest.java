@@ -0,0 +1,50 @@
+package project.backend.unittests;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import project.backend.client.ReferenceBlobStore;
+import project.backend.filetree.FileNode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReferenceBlobStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void storesSharingADirectoryReuseTheExistingObjects() throws Exception {
+        ReferenceBlobStore first = new ReferenceBlobStore(directory.toString());
+        first.loadReferenceFiles();
+        Path marker = Files.writeString(first.objectDirectory().resolve("marker"), "in use");
+
+        ReferenceBlobStore second = new ReferenceBlobStore(directory.toString());
+        second.loadReferenceFiles();
+
+        assertEquals(first.objectDirectory(), second.objectDirectory());
+        assertTrue(Files.exists(marker));
+        try (Stream<Path> entries = Files.list(directory)) {
+            assertEquals(1, entries.count());
+        }
+    }
+
+    @Test
+    void objectStoreHoldsEveryReferenceFile() throws Exception {
+        ReferenceBlobStore store = new ReferenceBlobStore(directory.toString());
+        store.loadReferenceFiles();
+
+        try (Repository repository = new FileRepositoryBuilder().setGitDir(store.objectDirectory().getParent().toFile()).build()) {
+            for (FileNode file : store.files().values()) {
+                assertTrue(repository.getObjectDatabase().has(ObjectId.fromString(file.getBlobId())));
+            }
+        }
+    }
+}
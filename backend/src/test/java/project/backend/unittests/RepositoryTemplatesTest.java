@@ -0,0 +1,75 @@
+package project.backend.unittests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import project.backend.basetest.TestData;
+import project.backend.filetree.FileNode;
+import project.backend.template.RepositoryTemplates;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@Slf4j
+@ActiveProfiles("test")
+public class RepositoryTemplatesTest implements TestData {
+
+    private static final Path OVERRIDE_DIRECTORY = createOverrideDirectory();
+
+    @Autowired
+    private RepositoryTemplates templates;
+
+    @DynamicPropertySource
+    static void templateProperties(DynamicPropertyRegistry registry) {
+        registry.add("repository.templates.override-directory", OVERRIDE_DIRECTORY::toString);
+    }
+
+    @Test
+    void overrideReplacesBundledTemplate() {
+        FileNode readme = templates.render(RepositoryTemplates.README, Map.of("name", "Demo", "version", "1.0"));
+
+        assertEquals("Demo (1.0) - generated for our site", readme.asString());
+    }
+
+    @Test
+    void bundledTemplateIsRenderedOnceAndShared() {
+        FileNode first = templates.render(RepositoryTemplates.DEPENDENCIES);
+        FileNode second = templates.render(RepositoryTemplates.DEPENDENCIES, Map.of("name", "ignored"));
+
+        assertEquals("{\n  \"dependencies\": []\n}", first.asString());
+        assertSame(first, second);
+    }
+
+    @Test
+    void missingValueIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> templates.render(RepositoryTemplates.README, Map.of("name", "Demo")));
+        assertThrows(IllegalArgumentException.class, () -> templates.render("unknown.md"));
+    }
+
+    private static Path createOverrideDirectory() {
+        try {
+            Path directory = Files.createTempDirectory("repository-templates");
+            Files.writeString(directory.resolve(RepositoryTemplates.README), "{{name}} ({{ version }}) - generated for our site");
+            directory.toFile().deleteOnExit();
+            directory.resolve(RepositoryTemplates.README).toFile().deleteOnExit();
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package project.backend.unittests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the migration script against a database created with the old sequence increments, without a Spring context.
+ */
+public class SequenceIncrementsScriptTest {
+
+    @Test
+    void existingSequencesIncrementByTheAllocationSize() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:sequence-increments")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE SEQUENCE seq_project START WITH 1 INCREMENT BY 5");
+            }
+
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/sequence-increments.sql"));
+            // Sequences that do not exist yet are skipped, running the script again changes nothing
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/sequence-increments.sql"));
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(
+                     "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'SEQ_PROJECT'")) {
+                result.next();
+                assertEquals(50, result.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package project.backend.unittests;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestClientException;
+import project.backend.basetest.TestData;
+import project.backend.entity.User;
+import project.backend.repository.UserRepository;
+import project.backend.service.UserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@Slf4j
+@ActiveProfiles("test")
+public class UserServiceTokenRefreshTest implements TestData {
+
+    private static final int CONCURRENT_CALLERS = 8;
+    private static final String EMPTY_RESPONSE_REFRESH_TOKEN = "refresh-token-empty-response";
+
+    private static final HttpServer TOKEN_ENDPOINT = startTokenEndpoint();
+    private static final AtomicInteger REFRESH_REQUESTS = new AtomicInteger();
+    private static final Set<String> USED_REFRESH_TOKENS = new HashSet<>();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void tokenEndpointProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.client.provider.gitlab.token-uri",
+            () -> "http://localhost:" + TOKEN_ENDPOINT.getAddress().getPort() + "/oauth/token");
+    }
+
+    @AfterAll
+    static void stopTokenEndpoint() {
+        TOKEN_ENDPOINT.stop(0);
+    }
+
+    @BeforeEach
+    void resetTokenEndpoint() {
+        REFRESH_REQUESTS.set(0);
+        synchronized (USED_REFRESH_TOKENS) {
+            USED_REFRESH_TOKENS.clear();
+        }
+    }
+
+    @Test
+    void concurrentCallersWithExpiredTokenShareOneRefresh() throws Exception {
+        User user = userRepository.save(User.builder()
+            .gitlabId(4711L)
+            .gitlabUsername("refresh-test")
+            .avatarUrl("")
+            .accessToken("expired-access-token")
+            .refreshToken("refresh-token-0")
+            .expirationTime((int) (System.currentTimeMillis() / 1000) - 60)
+            .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.getValidAccessToken(user.getId());
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("access-token-1", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, REFRESH_REQUESTS.get());
+        assertEquals("refresh-token-1", userRepository.findById(user.getId()).orElseThrow().getRefreshToken());
+    }
+
+    @Test
+    void unusableRefreshResponseKeepsStoredTokens() {
+        User user = userRepository.save(User.builder()
+            .gitlabId(4712L)
+            .gitlabUsername("refresh-test-empty")
+            .avatarUrl("")
+            .accessToken("expired-access-token")
+            .refreshToken(EMPTY_RESPONSE_REFRESH_TOKEN)
+            .expirationTime((int) (System.currentTimeMillis() / 1000) - 60)
+            .build());
+
+        assertThrows(RestClientException.class, () -> userService.getValidAccessToken(user.getId()));
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("expired-access-token", stored.getAccessToken());
+        assertEquals(EMPTY_RESPONSE_REFRESH_TOKEN, stored.getRefreshToken());
+        assertFalse(userService.checkForNonExpiredToken(user.getId()));
+
+        // The next call tries again with the same refresh token instead of giving up on the user
+        assertThrows(RestClientException.class, () -> userService.getValidAccessToken(user.getId()));
+        assertEquals(2, REFRESH_REQUESTS.get());
+    }
+
+    /**
+     * Stub of the GitLab token endpoint that, like GitLab, rejects refresh tokens that were already used.
+     */
+    private static HttpServer startTokenEndpoint() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/oauth/token", exchange -> {
+                String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                String refreshToken = form.replaceAll(".*refresh_token=([^&]*).*", "$1");
+                int request = REFRESH_REQUESTS.incrementAndGet();
+
+                boolean firstUse;
+                synchronized (USED_REFRESH_TOKENS) {
+                    firstUse = USED_REFRESH_TOKENS.add(refreshToken);
+                }
+
+                try {
+                    // Keep the refresh in flight long enough for all callers to pile up
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                String body = EMPTY_RESPONSE_REFRESH_TOKEN.equals(refreshToken) ? "{}" : firstUse
+                    ? "{\"access_token\":\"access-token-" + request + "\",\"refresh_token\":\"refresh-token-" + request
+                        + "\",\"created_at\":" + System.currentTimeMillis() / 1000 + ",\"expires_in\":7200}"
+                    : "{\"error\":\"invalid_grant\"}";
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(firstUse || EMPTY_RESPONSE_REFRESH_TOKEN.equals(refreshToken) ? 200 : 400, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start token endpoint stub", e);
+        }
+    }
+}